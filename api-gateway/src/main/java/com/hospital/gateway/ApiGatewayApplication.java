@@ -12,8 +12,13 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  * 2. Load Balancing : distribue les appels si plusieurs instances
  * 3. Résolution : trouve les services via Eureka (lb://service-name)
  * 4. Résilience : Circuit Breaker sur les routes
+ *
+ * scanBasePackages : composants partagés utilisés par la Gateway (module common).
  */
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {
+        "com.hospital.gateway",
+        "com.hospital.common.metrics"
+})
 @EnableDiscoveryClient
 public class ApiGatewayApplication {
     public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.hospital.gateway;
+
+import com.hospital.gateway.ratelimit.ClientQuotaRegistry;
+import com.hospital.gateway.ratelimit.ClientQuotaStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Compteurs des quotas clients de la Gateway (requêtes acceptées, refusées, en cours),
+ * les clients les plus refusés en premier.
+ */
+@RestController
+@RequestMapping("/gateway/client-quotas")
+public class ClientQuotaController {
+
+    private final ClientQuotaRegistry clientQuotaRegistry;
+
+    public ClientQuotaController(ClientQuotaRegistry clientQuotaRegistry) {
+        this.clientQuotaRegistry = clientQuotaRegistry;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ClientQuotaStats>> getStats(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(clientQuotaRegistry.stats(Math.max(1, Math.min(limit, 1000))));
+    }
+}
@@ -0,0 +1,77 @@
+package com.hospital.gateway;
+
+import com.hospital.gateway.ratelimit.ClientQuota;
+import com.hospital.gateway.ratelimit.ClientQuotaPolicy;
+import com.hospital.gateway.ratelimit.ClientQuotaRegistry;
+import com.hospital.gateway.summary.PatientSummaryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Synthèse d'un patient pour l'ouverture de son dossier : un seul appel au lieu de trois.
+ *
+ * Servie par la Gateway elle-même (prioritaire sur la route patient-service-route), donc hors des filtres
+ * de route : le quota client est appliqué ici (route "patient-summary", gateway.patient-summary.quota,
+ * mêmes règles et compteurs que le filtre ClientQuota), chaque service est appelé sous son circuit breaker.
+ * Pas de cache de réponses : la synthèse mêle trois services dont les écritures n'invalideraient pas
+ * l'entrée, et une synthèse dégradée ne doit pas être resservie.
+ */
+@RestController
+@RequestMapping("/api/patients")
+public class PatientSummaryController {
+
+    private static final String ROUTE_ID = "patient-summary";
+
+    private final PatientSummaryService patientSummaryService;
+    private final ClientQuotaRegistry clientQuotaRegistry;
+    private final ClientQuotaPolicy quotaPolicy;
+
+    public PatientSummaryController(PatientSummaryService patientSummaryService,
+                                    ClientQuotaRegistry clientQuotaRegistry,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${gateway.patient-summary.quota.replenish-rate:20}") int replenishRate,
+                                    @Value("${gateway.patient-summary.quota.burst-capacity:40}") int burstCapacity,
+                                    @Value("${gateway.patient-summary.quota.max-in-flight:10}") int maxInFlight) {
+        this.patientSummaryService = patientSummaryService;
+        this.clientQuotaRegistry = clientQuotaRegistry;
+        this.quotaPolicy = new ClientQuotaPolicy(ROUTE_ID, replenishRate, burstCapacity, maxInFlight, meterRegistry);
+    }
+
+    /**
+     * GET /api/patients/{id}/summary?depuis=... - Patient, rendez-vous (à partir de "depuis") et dossier médical.
+     * 200 même si une partie manque (complet = false, degradations) ; 404 si le patient n'existe pas ;
+     * 429 avec Retry-After au-delà du quota du client.
+     */
+    @GetMapping("/{id}/summary")
+    public Mono<ResponseEntity<?>> getSummary(@PathVariable Long id,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime depuis,
+                                              ServerHttpRequest request) {
+        ClientQuota quota = clientQuotaRegistry.quotaOf(ROUTE_ID, request);
+        ClientQuotaPolicy.Rejection rejection = quotaPolicy.tryAcquire(quota);
+        if (rejection != null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(rejection.body()));
+        }
+        return patientSummaryService.summary(id, depuis)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .doFinally(signal -> quota.exit());
+    }
+}
@@ -0,0 +1,27 @@
+package com.hospital.gateway;
+
+import com.hospital.gateway.cache.ResponseCacheStats;
+import com.hospital.gateway.cache.ResponseCacheStore;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Statistiques du cache de réponses de la Gateway (taux de hit, latence économisée, par route).
+ */
+@RestController
+@RequestMapping("/gateway/response-cache")
+public class ResponseCacheController {
+
+    private final ResponseCacheStore responseCacheStore;
+
+    public ResponseCacheController(ResponseCacheStore responseCacheStore) {
+        this.responseCacheStore = responseCacheStore;
+    }
+
+    @GetMapping
+    public ResponseEntity<ResponseCacheStats> getStats() {
+        return ResponseEntity.ok(responseCacheStore.stats());
+    }
+}
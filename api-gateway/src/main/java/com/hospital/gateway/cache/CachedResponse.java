@@ -0,0 +1,45 @@
+package com.hospital.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Réponse GET conservée par la Gateway.
+ *
+ * @param routeId        route qui a produit la réponse (politique de cache, invalidation)
+ * @param path           chemin de la ressource, sans la query string
+ * @param headers        en-têtes de représentation (Content-Type, ETag...), sans en-têtes de connexion
+ * @param body           corps complet de la réponse
+ * @param etag           ETag servi aux clients : celui du service, sinon un hash du corps
+ * @param backendEtag    true si l'ETag vient du service (revalidation possible par If-None-Match)
+ * @param storedAt       instant de mise en cache (ms)
+ * @param expiresAt      fin de fraîcheur (ms) ; au-delà, l'entrée doit être revalidée
+ * @param fetchNanos     durée de l'appel au service ayant produit la réponse (latence économisée à chaque hit)
+ */
+public record CachedResponse(String routeId,
+                             String path,
+                             HttpHeaders headers,
+                             byte[] body,
+                             String etag,
+                             boolean backendEtag,
+                             long storedAt,
+                             long expiresAt,
+                             long fetchNanos) {
+
+    public boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    /** Même réponse, fraîche à nouveau après une revalidation (304 du service) */
+    public CachedResponse refreshed(long now, long ttlMillis) {
+        return new CachedResponse(routeId, path, headers, body, etag, backendEtag, now, now + ttlMillis, fetchNanos);
+    }
+
+    public long ageSeconds(long now) {
+        return Math.max(0, (now - storedAt) / 1000);
+    }
+
+    /** Taille approximative en mémoire, utilisée pour la borne globale du cache */
+    public long weight() {
+        return body.length + path.length() * 2L + 256;
+    }
+}
@@ -0,0 +1,290 @@
+package com.hospital.gateway.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+/**
+ * Filtre "ResponseCache" : cache en mémoire des réponses GET d'une route.
+ *
+ * Politique par route (application.yml) :
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 30s                       # durée de fraîcheur des réponses
+ *       excluded-paths: /api/x/events  # chemins jamais mis en cache ni invalidants
+ *
+ * - GET : servi depuis le cache tant que l'entrée est fraîche (X-Cache: HIT). Expirée, l'entrée est
+ *   revalidée auprès du service par If-None-Match si celui-ci fournit un ETag (304 : X-Cache: REVALIDATED).
+ *   Seules les réponses 200 non streamées, sans Set-Cookie ni Cache-Control no-store/private,
+ *   et plus petites que gateway.response-cache.max-entry-size sont conservées.
+ * - If-None-Match du client : 304 sans corps si l'ETag de l'entrée correspond.
+ * - POST/PUT/PATCH/DELETE : la ressource écrite et les vues de sa collection sont invalidées.
+ *
+ * Ordonné avant NettyWriteResponseFilter (sinon la réponse du service est écrite sans passer par le cache),
+ * donc avant le filtre CircuitBreaker : un hit ne sollicite ni le circuit ni le service,
+ * et les réponses de fallback (503) ne sont jamais mises en cache.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    static final String X_CACHE = "X-Cache";
+
+    /** En-têtes propres à un échange, jamais rejoués depuis le cache */
+    private static final Set<String> EXCHANGE_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            "Keep-Alive", HttpHeaders.DATE, HttpHeaders.SET_COOKIE, HttpHeaders.AGE, X_CACHE);
+
+    private final ResponseCacheStore store;
+    private final MeterRegistry meterRegistry;
+    private final long maxEntryBytes;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${gateway.response-cache.max-entry-size:1MB}") DataSize maxEntrySize) {
+        super(Config.class);
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private Duration ttl = Duration.ofSeconds(30);
+        private List<String> excludedPaths = new ArrayList<>();
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public List<String> getExcludedPaths() {
+            return excludedPaths;
+        }
+
+        public void setExcludedPaths(List<String> excludedPaths) {
+            this.excludedPaths = excludedPaths;
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> excluded = config.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        registerMetrics(config.getRouteId());
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (excluded.stream().anyMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()))) {
+                return chain.filter(exchange);
+            }
+            HttpMethod method = request.getMethod();
+            if (HttpMethod.GET.equals(method)) {
+                return cachedGet(exchange, chain, config);
+            }
+            if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+                return chain.filter(exchange);
+            }
+            String path = request.getPath().value();
+            return chain.filter(exchange).doFinally(signal -> store.invalidate(config.getRouteId(), path));
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /** Résultats des lectures de la route : gateway.response.cache.requests{route, result} */
+    private void registerMetrics(String routeId) {
+        registerCounter(routeId, "hit", ResponseCacheStats.RouteStats::hits);
+        registerCounter(routeId, "miss", ResponseCacheStats.RouteStats::misses);
+        registerCounter(routeId, "revalidated", ResponseCacheStats.RouteStats::revalidations);
+        registerCounter(routeId, "not_modified", ResponseCacheStats.RouteStats::notModified);
+    }
+
+    private void registerCounter(String routeId, String result, ToLongFunction<ResponseCacheStats.RouteStats> count) {
+        FunctionCounter.builder("gateway.response.cache.requests", store, s -> count.applyAsLong(s.routeStats(routeId)))
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Mono<Void> cachedGet(ServerWebExchange exchange,
+                                 GatewayFilterChain chain,
+                                 Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        String routeId = config.getRouteId();
+        String key = keyOf(routeId, request);
+        long now = System.currentTimeMillis();
+        // Copié avant toute mutation : request.mutate() modifie les en-têtes de la requête d'origine
+        List<String> clientIfNoneMatch = List.copyOf(request.getHeaders().getIfNoneMatch());
+
+        List<String> requestCacheControl = request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL);
+        boolean bypass = requestCacheControl.stream().anyMatch(value -> value.contains("no-cache") || value.contains("no-store"));
+        CachedResponse entry = bypass ? null : store.get(key, now);
+
+        if (entry != null && entry.isFresh(now)) {
+            store.recordHit(routeId, entry.fetchNanos());
+            return serve(clientIfNoneMatch, exchange.getResponse(), entry, now, "HIT");
+        }
+        store.recordMiss(routeId);
+
+        // Entrée expirée avec ETag du service : requête conditionnelle, le corps n'est retransféré que s'il a changé
+        CachedResponse stale = entry;
+        ServerHttpRequest forwarded = stale == null ? request
+                : request.mutate().headers(headers -> headers.setIfNoneMatch(stale.etag())).build();
+        long generation = store.generation(routeId);
+        long start = System.nanoTime();
+
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (stale != null && HttpStatus.NOT_MODIFIED.equals(getStatusCode())) {
+                    long revalidatedAt = System.currentTimeMillis();
+                    CachedResponse refreshed = stale.refreshed(revalidatedAt, config.getTtl().toMillis());
+                    store.replace(key, refreshed);
+                    store.recordRevalidation(routeId);
+                    getDelegate().getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    return Flux.from(body)
+                            .doOnNext(DataBufferUtils::release)
+                            .then(Mono.defer(() -> serve(clientIfNoneMatch, getDelegate(), refreshed, revalidatedAt, "REVALIDATED")));
+                }
+                getHeaders().set(X_CACHE, "MISS");
+                if (!isCacheable(this)) {
+                    return super.writeWith(body);
+                }
+
+                ByteArrayOutputStream copy = new ByteArrayOutputStream();
+                AtomicBoolean tooLarge = new AtomicBoolean();
+                Flux<? extends DataBuffer> teed = Flux.from(body).doOnNext(buffer -> {
+                    if (tooLarge.get()) {
+                        return;
+                    }
+                    int length = buffer.readableByteCount();
+                    if (copy.size() + length > maxEntryBytes) {
+                        tooLarge.set(true);
+                        copy.reset();
+                        return;
+                    }
+                    byte[] bytes = new byte[length];
+                    int position = buffer.readPosition();
+                    buffer.read(bytes);
+                    buffer.readPosition(position);
+                    copy.write(bytes, 0, length);
+                });
+                return super.writeWith(teed).doOnSuccess(done -> {
+                    if (!tooLarge.get()) {
+                        store.put(key, toEntry(routeId, request, getHeaders(), copy.toByteArray(),
+                                config.getTtl(), System.nanoTime() - start), generation);
+                    }
+                });
+            }
+        };
+
+        return chain.filter(exchange.mutate().request(forwarded).response(response).build());
+    }
+
+    private Mono<Void> serve(List<String> ifNoneMatch, ServerHttpResponse response,
+                             CachedResponse entry, long now, String outcome) {
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(entry.headers());
+        headers.setETag(entry.etag());
+        headers.set(HttpHeaders.AGE, String.valueOf(entry.ageSeconds(now)));
+        headers.set(X_CACHE, outcome);
+
+        if (matches(ifNoneMatch, entry.etag())) {
+            store.recordNotModified(entry.routeId());
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private boolean isCacheable(ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        MediaType contentType = headers.getContentType();
+        String cacheControl = headers.getCacheControl();
+        return HttpStatus.OK.equals(response.getStatusCode())
+                && contentType != null
+                && !MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                && !MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")))
+                && headers.getContentLength() <= maxEntryBytes;
+    }
+
+    private static CachedResponse toEntry(String routeId, ServerHttpRequest request, HttpHeaders responseHeaders,
+                                          byte[] body, Duration ttl, long fetchNanos) {
+        HttpHeaders headers = new HttpHeaders();
+        responseHeaders.forEach((name, values) -> {
+            if (EXCHANGE_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        String backendEtag = responseHeaders.getETag();
+        String etag = backendEtag != null ? backendEtag : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        long now = System.currentTimeMillis();
+        return new CachedResponse(routeId, request.getPath().value(), HttpHeaders.readOnlyHttpHeaders(headers),
+                body, etag, backendEtag != null, now, now + ttl.toMillis(), fetchNanos);
+    }
+
+    /** Une entrée par route, URI (avec query string) et représentation demandée */
+    private static String keyOf(String routeId, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return routeId + ' ' + request.getURI().getRawPath() + (query != null ? "?" + query : "")
+                + ' ' + String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT));
+    }
+
+    /** Comparaison faible (RFC 9110) : W/"x" correspond à "x" */
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String expected = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return ifNoneMatch.stream()
+                .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(expected));
+    }
+}
@@ -0,0 +1,38 @@
+package com.hospital.gateway.cache;
+
+import java.util.Map;
+
+/**
+ * Statistiques du cache de réponses de la Gateway.
+ *
+ * hitRatio = hits / (hits + misses) ; savedLatencyMs cumule, pour chaque hit,
+ * la durée de l'appel au service qui avait produit la réponse.
+ * revalidations : réponses expirées confirmées par un 304 du service (corps non retransféré).
+ * notModified : 304 renvoyés aux clients dont l'If-None-Match correspondait.
+ */
+public record ResponseCacheStats(int entries,
+                                 long sizeBytes,
+                                 long hits,
+                                 long misses,
+                                 double hitRatio,
+                                 long revalidations,
+                                 long notModified,
+                                 long stores,
+                                 long evictions,
+                                 long invalidations,
+                                 long savedLatencyMs,
+                                 Map<String, RouteStats> routes) {
+
+    public record RouteStats(long hits,
+                             long misses,
+                             double hitRatio,
+                             long revalidations,
+                             long notModified,
+                             long savedLatencyMs) {
+    }
+
+    static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
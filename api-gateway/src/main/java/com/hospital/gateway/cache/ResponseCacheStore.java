@@ -0,0 +1,203 @@
+package com.hospital.gateway.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stockage en mémoire des réponses GET mises en cache par la Gateway, partagé par toutes les routes.
+ *
+ * - Bornes : nombre d'entrées et taille totale des corps ; au-delà, les entrées les moins
+ *   récemment lues sont évincées (LRU).
+ * - Fraîcheur : chaque entrée a sa date d'expiration (TTL de la route). Une entrée expirée
+ *   portant un ETag du service est conservée pour être revalidée (If-None-Match) ; sinon elle est supprimée.
+ * - Invalidation : une écriture sur une ressource supprime cette ressource, ses sous-ressources
+ *   et les vues de sa collection (listes, pages, recherches), mais pas les autres ressources.
+ *   Un compteur de génération par route empêche une lecture commencée avant l'écriture
+ *   de remettre en cache une réponse obsolète.
+ */
+@Component
+public class ResponseCacheStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheStore.class);
+
+    private final long maxEntries;
+    private final long maxBytes;
+
+    /** Ordre d'accès : la première entrée est la moins récemment lue */
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<String, RouteCounters> routeCounters = new ConcurrentHashMap<>();
+
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ResponseCacheStore(@Value("${gateway.response-cache.max-entries:10000}") long maxEntries,
+                              @Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /** Entrée associée à la clé, fraîche ou à revalider ; null si absente */
+    public synchronized CachedResponse get(String key, long now) {
+        CachedResponse entry = entries.get(key);
+        if (entry != null && !entry.isFresh(now) && !entry.backendEtag()) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /** Génération courante de la route, à relever avant d'appeler le service */
+    public long generation(String routeId) {
+        return generations.computeIfAbsent(routeId, id -> new AtomicLong()).get();
+    }
+
+    /**
+     * Met une réponse en cache, sauf si une écriture sur la route a eu lieu depuis
+     * que la génération a été relevée.
+     */
+    public synchronized void put(String key, CachedResponse entry, long generation) {
+        if (generation(entry.routeId()) != generation || entry.weight() > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, entry);
+        totalBytes += entry.weight();
+        stores.increment();
+
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /** Remplace une entrée revalidée par le service (304) */
+    public synchronized void replace(String key, CachedResponse entry) {
+        if (entries.containsKey(key)) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Invalide les réponses touchées par une écriture sur "path" (ex : PUT /api/patients/5) :
+     * /api/patients/5 et ses sous-ressources, la collection /api/patients et ses vues
+     * non identifiées (/page, /search, /patient/{id}...). /api/patients/7 reste en cache.
+     */
+    public synchronized void invalidate(String routeId, String path) {
+        generations.computeIfAbsent(routeId, id -> new AtomicLong()).incrementAndGet();
+
+        String collection = collectionOf(path);
+        int removed = 0;
+        Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            CachedResponse entry = it.next().getValue();
+            if (entry.routeId().equals(routeId) && isAffected(entry.path(), path, collection)) {
+                totalBytes -= entry.weight();
+                it.remove();
+                removed++;
+            }
+        }
+        invalidations.add(removed);
+        log.debug("Cache Gateway : {} réponse(s) invalidée(s) après écriture sur {}", removed, path);
+    }
+
+    public void recordHit(String routeId, long savedNanos) {
+        counters(routeId).hits.increment();
+        counters(routeId).savedNanos.add(savedNanos);
+    }
+
+    public void recordMiss(String routeId) {
+        counters(routeId).misses.increment();
+    }
+
+    public void recordRevalidation(String routeId) {
+        counters(routeId).revalidations.increment();
+    }
+
+    public void recordNotModified(String routeId) {
+        counters(routeId).notModified.increment();
+    }
+
+    /** Compteurs d'une route (métriques gateway.response.cache.requests) */
+    public ResponseCacheStats.RouteStats routeStats(String routeId) {
+        return counters(routeId).snapshot();
+    }
+
+    public synchronized ResponseCacheStats stats() {
+        Map<String, ResponseCacheStats.RouteStats> routes = new TreeMap<>();
+        routeCounters.forEach((routeId, counters) -> routes.put(routeId, counters.snapshot()));
+
+        long hits = routes.values().stream().mapToLong(ResponseCacheStats.RouteStats::hits).sum();
+        long misses = routes.values().stream().mapToLong(ResponseCacheStats.RouteStats::misses).sum();
+        return new ResponseCacheStats(
+                entries.size(), totalBytes, hits, misses, ResponseCacheStats.ratio(hits, misses),
+                routes.values().stream().mapToLong(ResponseCacheStats.RouteStats::revalidations).sum(),
+                routes.values().stream().mapToLong(ResponseCacheStats.RouteStats::notModified).sum(),
+                stores.sum(), evictions.sum(), invalidations.sum(),
+                routes.values().stream().mapToLong(ResponseCacheStats.RouteStats::savedLatencyMs).sum(),
+                routes);
+    }
+
+    private void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.weight();
+        }
+    }
+
+    private RouteCounters counters(String routeId) {
+        return routeCounters.computeIfAbsent(routeId, id -> new RouteCounters());
+    }
+
+    private static boolean isAffected(String cachedPath, String writtenPath, String collection) {
+        if (cachedPath.equals(writtenPath) || cachedPath.startsWith(writtenPath + "/")) {
+            return true;
+        }
+        if (cachedPath.equals(collection)) {
+            return true;
+        }
+        if (!cachedPath.startsWith(collection + "/")) {
+            return false;
+        }
+        // Vue de la collection (/page, /search, /patient/3...) et non une ressource identifiée (/7)
+        String firstSegment = cachedPath.substring(collection.length() + 1).split("/", 2)[0];
+        return !firstSegment.chars().allMatch(Character::isDigit);
+    }
+
+    /** "/api/patients/5/diagnostics" -> "/api/patients" */
+    private static String collectionOf(String path) {
+        String[] segments = path.split("/");
+        return segments.length >= 3 ? "/" + segments[1] + "/" + segments[2] : path;
+    }
+
+    private static class RouteCounters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder revalidations = new LongAdder();
+        final LongAdder notModified = new LongAdder();
+        final LongAdder savedNanos = new LongAdder();
+
+        ResponseCacheStats.RouteStats snapshot() {
+            long h = hits.sum();
+            long m = misses.sum();
+            return new ResponseCacheStats.RouteStats(h, m, ResponseCacheStats.ratio(h, m),
+                    revalidations.sum(), notModified.sum(), savedNanos.sum() / 1_000_000);
+        }
+    }
+}
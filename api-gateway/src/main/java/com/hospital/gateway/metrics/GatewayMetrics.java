@@ -0,0 +1,46 @@
+package com.hospital.gateway.metrics;
+
+import com.hospital.gateway.cache.ResponseCacheStore;
+import com.hospital.gateway.ratelimit.ClientQuotaRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compteurs propres à la Gateway, exposés sur /actuator/prometheus :
+ * occupation du cache de réponses et nombre de clients suivis par les quotas.
+ * Les compteurs par route sont enregistrés par les filtres ResponseCache et ClientQuota.
+ */
+@Component
+public class GatewayMetrics implements MeterBinder {
+
+    private final ResponseCacheStore responseCacheStore;
+    private final ClientQuotaRegistry clientQuotaRegistry;
+
+    public GatewayMetrics(ResponseCacheStore responseCacheStore, ClientQuotaRegistry clientQuotaRegistry) {
+        this.responseCacheStore = responseCacheStore;
+        this.clientQuotaRegistry = clientQuotaRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("gateway.response.cache.entries", responseCacheStore, store -> store.stats().entries())
+                .register(registry);
+        Gauge.builder("gateway.response.cache.size", responseCacheStore, store -> store.stats().sizeBytes())
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.stores", responseCacheStore, store -> store.stats().stores())
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.evictions", responseCacheStore, store -> store.stats().evictions())
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.invalidations", responseCacheStore,
+                        store -> store.stats().invalidations())
+                .register(registry);
+
+        Gauge.builder("gateway.client.quota.keys", clientQuotaRegistry, ClientQuotaRegistry::size)
+                .description("Couples (route, client) suivis par les quotas")
+                .register(registry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hospital.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quota d'un client sur une route : débit (seau à jetons) et requêtes simultanées.
+ *
+ * Le seau à jetons est implémenté par GCRA (Generic Cell Rate Algorithm) : un seul AtomicLong,
+ * l'heure d'arrivée théorique (TAT) de la prochaine requête, mis à jour par CAS.
+ * Chaque requête repousse la TAT d'un intervalle (1 s / débit) ; elle est refusée si la TAT
+ * dépasse maintenant de plus que la rafale autorisée. Aucun verrou, aucune tâche de remplissage.
+ */
+public class ClientQuota {
+
+    private final String routeId;
+    private final String client;
+
+    /** Heure d'arrivée théorique (System.nanoTime) ; seau plein dès qu'elle est passée */
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedRate = new LongAdder();
+    private final LongAdder rejectedInFlight = new LongAdder();
+
+    public ClientQuota(String routeId, String client) {
+        this.routeId = routeId;
+        this.client = client;
+    }
+
+    /**
+     * Consomme un jeton.
+     *
+     * @param intervalNanos  1 s / débit autorisé
+     * @param burstCapacity  nombre de requêtes acceptées d'affilée quand le seau est plein
+     * @return 0 si la requête est acceptée, sinon le délai (ns) avant qu'un jeton soit disponible
+     */
+    long tryConsume(long now, long intervalNanos, int burstCapacity) {
+        long burstNanos = intervalNanos * burstCapacity;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long nextTat = Math.max(tat, now) + intervalNanos;
+            long allowedAt = nextTat - burstNanos;
+            if (now < allowedAt) {
+                return allowedAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(tat, nextTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Réserve une place parmi les requêtes simultanées ; false si maxInFlight est atteint */
+    boolean tryEnter(int maxInFlight) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Fin d'une requête acceptée (ClientQuotaPolicy.tryAcquire) */
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    /** Seau plein et aucune requête en cours : l'état équivaut à un quota neuf, il peut être oublié */
+    boolean isIdle(long now) {
+        return inFlight.get() == 0 && theoreticalArrival.get() - now <= 0;
+    }
+
+    void recordAllowed() {
+        allowed.increment();
+    }
+
+    void recordRejectedRate() {
+        rejectedRate.increment();
+    }
+
+    void recordRejectedInFlight() {
+        rejectedInFlight.increment();
+    }
+
+    ClientQuotaStats snapshot() {
+        return new ClientQuotaStats(routeId, client, allowed.sum(), rejectedRate.sum(),
+                rejectedInFlight.sum(), inFlight.get());
+    }
+}
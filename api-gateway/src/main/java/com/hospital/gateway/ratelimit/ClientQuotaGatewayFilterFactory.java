@@ -0,0 +1,108 @@
+package com.hospital.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filtre "ClientQuota" : contrôle d'admission par client et par route, sans Redis.
+ *
+ * Politique par route (application.yml) :
+ *   - name: ClientQuota
+ *     args:
+ *       replenish-rate: 100   # requêtes par seconde et par client
+ *       burst-capacity: 200   # rafale acceptée quand le client était inactif
+ *       max-in-flight: 50     # requêtes simultanées par client
+ *
+ * Client : voir ClientQuotaRegistry.quotaOf. Règles d'admission : ClientQuotaPolicy.
+ * Au-delà du quota : 429 avec Retry-After (secondes), sans appeler le service.
+ * Ordonné avant le cache de réponses : les hits du cache consomment aussi le quota du client.
+ */
+@Component
+public class ClientQuotaGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ClientQuotaGatewayFilterFactory.Config> {
+
+    private final ClientQuotaRegistry registry;
+    private final MeterRegistry meterRegistry;
+
+    public ClientQuotaGatewayFilterFactory(ClientQuotaRegistry registry, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.registry = registry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int replenishRate = 100;
+        private int burstCapacity = 200;
+        private int maxInFlight = 50;
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        ClientQuotaPolicy policy = new ClientQuotaPolicy(config.getRouteId(), config.getReplenishRate(),
+                config.getBurstCapacity(), config.getMaxInFlight(), meterRegistry);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ClientQuota quota = registry.quotaOf(config.getRouteId(), exchange.getRequest());
+            ClientQuotaPolicy.Rejection rejection = policy.tryAcquire(quota);
+            if (rejection != null) {
+                return reject(exchange.getResponse(), rejection);
+            }
+            return chain.filter(exchange).doFinally(signal -> quota.exit());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2);
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, ClientQuotaPolicy.Rejection rejection) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = rejection.body().getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
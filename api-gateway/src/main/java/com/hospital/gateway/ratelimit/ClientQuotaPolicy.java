@@ -0,0 +1,84 @@
+package com.hospital.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Politique de quota d'une route : débit et rafale par client, requêtes simultanées par client.
+ *
+ * Partagée par le filtre ClientQuota et les points d'entrée servis par la Gateway elle-même
+ * (synthèse patient), qui appliquent ainsi les mêmes règles et les mêmes compteurs.
+ * Décisions comptées par route, tous clients confondus : gateway.client.quota.requests{route, outcome}.
+ */
+public class ClientQuotaPolicy {
+
+    private final String routeId;
+    private final long intervalNanos;
+    private final int burstCapacity;
+    private final int maxInFlight;
+
+    private final Counter allowed;
+    private final Counter rejectedRate;
+    private final Counter rejectedInFlight;
+
+    public ClientQuotaPolicy(String routeId, int replenishRate, int burstCapacity, int maxInFlight,
+                             MeterRegistry meterRegistry) {
+        this.routeId = routeId;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, replenishRate);
+        this.burstCapacity = Math.max(1, burstCapacity);
+        this.maxInFlight = maxInFlight;
+        this.allowed = counter(meterRegistry, "allowed");
+        this.rejectedRate = counter(meterRegistry, "rejected_rate");
+        this.rejectedInFlight = counter(meterRegistry, "rejected_in_flight");
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    /**
+     * Admission d'une requête du client.
+     *
+     * @return null si la requête est acceptée (quota.exit() à appeler à la fin de la requête),
+     *         sinon le refus à renvoyer (429)
+     */
+    public Rejection tryAcquire(ClientQuota quota) {
+        if (!quota.tryEnter(maxInFlight)) {
+            quota.recordRejectedInFlight();
+            rejectedInFlight.increment();
+            return new Rejection(1, "Trop de requêtes simultanées pour ce client");
+        }
+        long waitNanos = quota.tryConsume(System.nanoTime(), intervalNanos, burstCapacity);
+        if (waitNanos > 0) {
+            quota.exit();
+            quota.recordRejectedRate();
+            rejectedRate.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            return new Rejection(retryAfterSeconds, "Débit maximal atteint pour ce client");
+        }
+        quota.recordAllowed();
+        allowed.increment();
+        return null;
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.client.quota.requests")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Requête refusée : 429 avec Retry-After (secondes), sans appeler le service.
+     */
+    public record Rejection(long retryAfterSeconds, String erreur) {
+
+        /** Corps JSON de la réponse 429 */
+        public String body() {
+            return "{\"erreur\":\"" + erreur + "\",\"message\":\"Veuillez réessayer dans "
+                    + retryAfterSeconds + " seconde(s)\"}";
+        }
+    }
+}
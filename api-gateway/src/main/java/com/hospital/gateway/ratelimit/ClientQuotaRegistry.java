@@ -0,0 +1,100 @@
+package com.hospital.gateway.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Quotas de tous les clients, par route.
+ *
+ * Lecture sans verrou (ConcurrentHashMap) ; seule la création d'un quota verrouille une case de la table.
+ * Le nombre de clés est borné : au-delà de gateway.client-quota.max-keys, les quotas inactifs
+ * (seau plein, aucune requête en cours) sont oubliés, ce qui ne change pas leur comportement.
+ */
+@Component
+public class ClientQuotaRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientQuotaRegistry.class);
+
+    private final int maxKeys;
+    private final String apiKeyHeader;
+    private final Set<String> trustedApiKeys;
+    private final ConcurrentMap<String, ClientQuota> quotas = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public ClientQuotaRegistry(@Value("${gateway.client-quota.max-keys:100000}") int maxKeys,
+                               @Value("${gateway.client-quota.api-key-header:X-API-Key}") String apiKeyHeader,
+                               @Value("${gateway.client-quota.trusted-api-keys:}") Set<String> trustedApiKeys) {
+        this.maxKeys = maxKeys;
+        this.apiKeyHeader = apiKeyHeader;
+        this.trustedApiKeys = Set.copyOf(trustedApiKeys);
+    }
+
+    /**
+     * Quota du client de la requête sur la route : clé de l'en-tête gateway.client-quota.api-key-header (X-API-Key)
+     * si elle fait partie de gateway.client-quota.trusted-api-keys, sinon adresse IP.
+     * Une clé inconnue est ignorée : changer de clé à chaque requête ne donne pas un quota neuf.
+     */
+    public ClientQuota quotaOf(String routeId, ServerHttpRequest request) {
+        String apiKey = request.getHeaders().getFirst(apiKeyHeader);
+        if (apiKey != null && trustedApiKeys.contains(apiKey)) {
+            String masked = apiKey.substring(0, Math.min(4, apiKey.length())) + "****";
+            return quota(routeId, "key:" + apiKey, "api-key:" + masked);
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        String ip = remote == null ? "inconnu"
+                : remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+        return quota(routeId, "ip:" + ip, ip);
+    }
+
+    public ClientQuota quota(String routeId, String clientKey, String clientLabel) {
+        String key = routeId + ' ' + clientKey;
+        ClientQuota quota = quotas.get(key);
+        if (quota != null) {
+            return quota;
+        }
+        if (quotas.size() >= maxKeys) {
+            sweepIdle();
+        }
+        return quotas.computeIfAbsent(key, k -> new ClientQuota(routeId, clientLabel));
+    }
+
+    /** Clients triés par nombre de refus puis de requêtes acceptées */
+    public List<ClientQuotaStats> stats(int limit) {
+        return quotas.values().stream()
+                .map(ClientQuota::snapshot)
+                .sorted(Comparator.comparingLong(ClientQuotaStats::rejected)
+                        .thenComparingLong(ClientQuotaStats::allowed)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public int size() {
+        return quotas.size();
+    }
+
+    private void sweepIdle() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            int before = quotas.size();
+            quotas.values().removeIf(quota -> quota.isIdle(now));
+            log.debug("Quotas clients : {} quota(s) inactif(s) oublié(s)", before - quotas.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
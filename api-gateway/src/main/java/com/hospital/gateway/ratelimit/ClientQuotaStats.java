@@ -0,0 +1,21 @@
+package com.hospital.gateway.ratelimit;
+
+/**
+ * Compteurs d'un client sur une route.
+ *
+ * @param client            clé API masquée ("api-key:abcd****") ou adresse IP
+ * @param rejectedRate      requêtes refusées (429) pour dépassement du débit
+ * @param rejectedInFlight  requêtes refusées (429) pour trop de requêtes simultanées
+ * @param inFlight          requêtes en cours au moment de la lecture
+ */
+public record ClientQuotaStats(String routeId,
+                               String client,
+                               long allowed,
+                               long rejectedRate,
+                               long rejectedInFlight,
+                               int inFlight) {
+
+    public long rejected() {
+        return rejectedRate + rejectedInFlight;
+    }
+}
@@ -0,0 +1,27 @@
+package com.hospital.gateway.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Synthèse du dossier d'un patient : fiche patient, rendez-vous et dossier médical,
+ * tels que renvoyés par chaque service.
+ *
+ * complet = false : au moins une partie manque (null) et est décrite dans degradations.
+ * dossierMedical est aussi null, sans dégradation, quand le patient n'a pas encore de dossier.
+ */
+public record PatientSummary(Long patientId,
+                             JsonNode patient,
+                             JsonNode rendezVous,
+                             JsonNode dossierMedical,
+                             boolean complet,
+                             List<Degradation> degradations) {
+
+    /**
+     * Partie absente de la synthèse.
+     * raison : CIRCUIT_OUVERT (service non appelé), DELAI_DEPASSE ou ERREUR.
+     */
+    public record Degradation(String source, String raison, String message) {
+    }
+}
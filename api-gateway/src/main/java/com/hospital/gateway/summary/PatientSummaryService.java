@@ -0,0 +1,151 @@
+package com.hospital.gateway.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Synthèse d'un patient (GET /api/patients/{id}/summary) : les trois services sont appelés en parallèle,
+ * la durée de la synthèse est celle de l'appel le plus lent et non la somme des trois.
+ *
+ * Chaque appel passe par le circuit breaker de la route du service (patientServiceCB, appointmentServiceCB,
+ * medicalServiceCB), partagé avec les routes : un circuit ouvert n'est pas sollicité. Il est borné par
+ * gateway.patient-summary.timeouts.* (dans la limite du time limiter du circuit, 5 s) ; un dépassement
+ * compte comme un échec du circuit. Un appel en échec n'annule pas la synthèse : sa partie est null
+ * et décrite dans degradations (compteur gateway.patient.summary.degraded, par source et raison).
+ */
+@Component
+public class PatientSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientSummaryService.class);
+
+    private final WebClient webClient;
+    private final ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory;
+    private final MeterRegistry meterRegistry;
+    private final Duration patientTimeout;
+    private final Duration appointmentsTimeout;
+    private final Duration medicalRecordTimeout;
+
+    public PatientSummaryService(WebClient.Builder webClientBuilder,
+                                 ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                                 ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${gateway.patient-summary.timeouts.patient:2s}") Duration patientTimeout,
+                                 @Value("${gateway.patient-summary.timeouts.appointments:2s}") Duration appointmentsTimeout,
+                                 @Value("${gateway.patient-summary.timeouts.medical-records:2s}") Duration medicalRecordTimeout) {
+        // Résolution des services via Eureka, comme les routes "lb://"
+        this.webClient = webClientBuilder.filter(loadBalancer).build();
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.meterRegistry = meterRegistry;
+        this.patientTimeout = patientTimeout;
+        this.appointmentsTimeout = appointmentsTimeout;
+        this.medicalRecordTimeout = medicalRecordTimeout;
+    }
+
+    /**
+     * Synthèse du patient, rendez-vous à partir de "depuis" (null : tout l'historique).
+     * Vide si le Patient Service répond que le patient n'existe pas.
+     */
+    public Mono<PatientSummary> summary(Long patientId, LocalDateTime depuis) {
+        Mono<Part> patient = part("patient", "patientServiceCB", patientTimeout,
+                webClient.get()
+                        .uri("http://patient-service/api/patients/{id}", patientId)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class));
+        Mono<Part> rendezVous = part("rendezVous", "appointmentServiceCB", appointmentsTimeout,
+                webClient.get()
+                        .uri(uri -> uri.scheme("http").host("appointment-service")
+                                .path("/api/appointments/patient/{id}")
+                                .queryParamIfPresent("depuis", Optional.ofNullable(depuis))
+                                .build(patientId))
+                        .retrieve()
+                        .bodyToMono(JsonNode.class));
+        Mono<Part> dossierMedical = part("dossierMedical", "medicalServiceCB", medicalRecordTimeout,
+                webClient.get()
+                        .uri("http://medical-record-service/api/medical-records/patient/{id}", patientId)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class));
+
+        // Mono.zip souscrit aux trois appels en même temps
+        return Mono.zip(patient, rendezVous, dossierMedical)
+                .flatMap(parts -> parts.getT1().notFound()
+                        ? Mono.empty()
+                        : Mono.just(assemble(patientId, parts.getT1(), parts.getT2(), parts.getT3())));
+    }
+
+    /** Appel d'un service protégé par son circuit : émet toujours une partie, éventuellement dégradée */
+    private Mono<Part> part(String source, String circuitBreaker, Duration timeout, Mono<JsonNode> call) {
+        Mono<Part> bounded = call
+                .timeout(timeout)
+                .map(Part::of)
+                .defaultIfEmpty(Part.NOT_FOUND)
+                // 404 : réponse normale du service, pas un échec du circuit
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(Part.NOT_FOUND));
+        return circuitBreakerFactory.create(circuitBreaker)
+                .run(bounded, error -> Mono.just(Part.degraded(degradation(source, circuitBreaker, timeout, error))));
+    }
+
+    private PatientSummary.Degradation degradation(String source, String circuitBreaker, Duration timeout, Throwable error) {
+        PatientSummary.Degradation degradation;
+        if (error instanceof CallNotPermittedException) {
+            degradation = new PatientSummary.Degradation(source, "CIRCUIT_OUVERT",
+                    "Circuit " + circuitBreaker + " ouvert, service non appelé");
+        } else if (error instanceof TimeoutException) {
+            degradation = new PatientSummary.Degradation(source, "DELAI_DEPASSE",
+                    "Pas de réponse en " + timeout.toMillis() + " ms");
+        } else if (error instanceof WebClientResponseException response) {
+            degradation = new PatientSummary.Degradation(source, "ERREUR",
+                    "Réponse HTTP " + response.getStatusCode().value());
+        } else {
+            degradation = new PatientSummary.Degradation(source, "ERREUR", "Service injoignable");
+        }
+        log.debug("Synthèse patient dégradée ({}) : {}", source, error.toString());
+        Counter.builder("gateway.patient.summary.degraded")
+                .description("Parties de synthèse patient absentes")
+                .tag("source", source)
+                .tag("raison", degradation.raison())
+                .register(meterRegistry)
+                .increment();
+        return degradation;
+    }
+
+    private static PatientSummary assemble(Long patientId, Part patient, Part rendezVous, Part dossierMedical) {
+        List<PatientSummary.Degradation> degradations = Stream.of(patient, rendezVous, dossierMedical)
+                .map(Part::degradation)
+                .filter(degradation -> degradation != null)
+                .toList();
+        return new PatientSummary(patientId, patient.body(), rendezVous.body(), dossierMedical.body(),
+                degradations.isEmpty(), degradations);
+    }
+
+    /** Réponse d'un service : corps, 404 (body null) ou dégradation */
+    private record Part(JsonNode body, boolean notFound, PatientSummary.Degradation degradation) {
+
+        static final Part NOT_FOUND = new Part(null, true, null);
+
+        static Part of(JsonNode body) {
+            return new Part(body, false, null);
+        }
+
+        static Part degraded(PatientSummary.Degradation degradation) {
+            return new Part(null, false, degradation);
+        }
+    }
+}
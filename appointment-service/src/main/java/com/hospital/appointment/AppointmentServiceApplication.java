@@ -1,18 +1,33 @@
 package com.hospital.appointment;
 
+import com.hospital.common.client.loadbalancer.PatientServiceLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Microservice Rendez-vous.
  * @EnableFeignClients : active les clients Feign pour les appels inter-services.
  * @EnableDiscoveryClient : s'enregistre auprès d'Eureka.
+ * @EnableScheduling : lecture périodique du journal d'événements patients.
+ * @LoadBalancerClient : répartition vers l'instance du Patient Service la plus rapide (latence, requêtes en cours).
+ * scanBasePackages : composants partagés utilisés par le service (module common).
  */
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {
+        "com.hospital.appointment",
+        "com.hospital.common.admission",
+        "com.hospital.common.client",
+        "com.hospital.common.datasource",
+        "com.hospital.common.metrics",
+        "com.hospital.common.persistence"
+})
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
+@LoadBalancerClient(name = "patient-service", configuration = PatientServiceLoadBalancerConfiguration.class)
 public class AppointmentServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(AppointmentServiceApplication.class, args);
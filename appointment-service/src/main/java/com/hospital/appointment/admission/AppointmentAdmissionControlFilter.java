@@ -0,0 +1,53 @@
+package com.hospital.appointment.admission;
+
+import com.hospital.common.admission.AdaptiveConcurrencyLimiter;
+import com.hospital.common.admission.AdaptiveConcurrencyLimiter.Priority;
+import com.hospital.common.admission.AdmissionControlFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contrôle d'admission devant /api/appointments/**.
+ *
+ * Priorités :
+ * - BULK : GET /api/appointments, /page, /stream et POST /import
+ *   (non mesurées : leur durée dépend du volume traité) ;
+ * - NORMAL : tout le reste.
+ * POST /api/appointments n'est pas limité ici : la création attend surtout le Patient Service
+ * (jusqu'à des milliers de requêtes en attente sur le chemin réactif) et elle est déjà bornée
+ * par le bulkhead "patientService". La compter ferait refuser les lectures quand le Patient Service ralentit.
+ * /api/appointments/events n'est pas limité non plus : une lecture long-poll ou SSE reste ouverte
+ * sans consommer de thread ni de connexion JDBC.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AppointmentAdmissionControlFilter extends AdmissionControlFilter {
+
+    private static final String BASE_PATH = "/api/appointments";
+    private static final String EVENTS_PATH = BASE_PATH + "/events";
+
+    public AppointmentAdmissionControlFilter(AdaptiveConcurrencyLimiter limiter) {
+        super(limiter, BASE_PATH);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return super.shouldNotFilter(request) || uri.startsWith(EVENTS_PATH)
+                || ("POST".equals(request.getMethod()) && (uri.equals(BASE_PATH) || uri.equals(BASE_PATH + "/")));
+    }
+
+    @Override
+    protected Priority classify(HttpServletRequest request, String path) {
+        boolean get = "GET".equals(request.getMethod());
+        if (get && (path.isEmpty() || path.equals("/") || path.equals("/page") || path.equals("/stream"))) {
+            return Priority.BULK;
+        }
+        if ("POST".equals(request.getMethod()) && path.equals("/import")) {
+            return Priority.BULK;
+        }
+        return Priority.NORMAL;
+    }
+}
@@ -0,0 +1,194 @@
+package com.hospital.appointment.archive;
+
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.entity.ArchivedAppointment;
+import com.hospital.appointment.repository.AppointmentRepository;
+import com.hospital.appointment.repository.ArchivedAppointmentRepository;
+import com.hospital.appointment.schedule.BookedSlot;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Archive des rendez-vous clos : la table appointments ne garde que les rendez-vous récents,
+ * à venir ou encore ouverts ; les autres sont dans appointments_archive.
+ *
+ * Toutes les appointment.archive.interval-ms, les rendez-vous TERMINE ou ANNULE antérieurs de plus
+ * de appointment.archive.after sont déplacés dans l'archive, par lots de appointment.archive.batch-size :
+ * lignes verrouillées, copiées puis supprimées dans la même transaction.
+ *
+ * L'archive ne contient que des rendez-vous antérieurs à son horizon (maintenant - after, ou rendez-vous
+ * archivé le plus récent au démarrage s'il est plus tardif, après une réduction de "after").
+ * Les lectures ci-dessous ne vont en base que si la période demandée commence avant l'horizon ;
+ * elles renvoient sinon une liste vide. "after" doit être le même sur toutes les instances.
+ */
+@Component
+@Slf4j
+public class AppointmentArchive {
+
+    private static final Set<Appointment.StatutRendezVous> CLOSED =
+            EnumSet.of(Appointment.StatutRendezVous.TERMINE, Appointment.StatutRendezVous.ANNULE);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration after;
+    private final int batchSize;
+    private final AtomicLong archivedCount = new AtomicLong();
+
+    // Date du rendez-vous archivé le plus récent au démarrage (null : archive vide)
+    private volatile LocalDateTime latestAtStartup;
+
+    public AppointmentArchive(AppointmentRepository appointmentRepository,
+                              ArchivedAppointmentRepository archivedAppointmentRepository,
+                              EntityManager entityManager,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${appointment.archive.enabled:true}") boolean enabled,
+                              @Value("${appointment.archive.after:90d}") Duration after,
+                              @Value("${appointment.archive.batch-size:1000}") int batchSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.after = after;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void loadLatestArchived() {
+        latestAtStartup = archivedAppointmentRepository.findLatestDateHeure().orElse(null);
+    }
+
+    /** Vrai si l'archive peut contenir des rendez-vous datés de "debut" ou après (null : sans borne) */
+    public boolean covers(LocalDateTime debut) {
+        LocalDateTime latest = latestAtStartup;
+        if (debut == null) {
+            return enabled || latest != null;
+        }
+        return (enabled && debut.isBefore(LocalDateTime.now().minus(after)))
+                || (latest != null && !debut.isAfter(latest));
+    }
+
+    /** Rendez-vous archivés d'un patient, à partir de "depuis" (null : tout l'historique) */
+    public List<Appointment> findByPatientId(Long patientId, LocalDateTime depuis) {
+        if (!covers(depuis)) {
+            return List.of();
+        }
+        List<ArchivedAppointment> archived = depuis == null
+                ? archivedAppointmentRepository.findByPatientId(patientId)
+                : archivedAppointmentRepository.findByPatientIdAndDateHeureGreaterThanEqual(patientId, depuis);
+        return toAppointments(archived);
+    }
+
+    /** Tous les rendez-vous archivés à partir de "depuis" (null : toute l'archive) */
+    public List<Appointment> findAll(LocalDateTime depuis) {
+        if (!covers(depuis)) {
+            return List.of();
+        }
+        return toAppointments(depuis == null
+                ? archivedAppointmentRepository.findAll()
+                : archivedAppointmentRepository.findByDateHeureGreaterThanEqual(depuis));
+    }
+
+    /** Planning archivé d'un médecin sur une période, par heure */
+    public List<Appointment> findByMedecinBetween(String medecin, LocalDateTime debut, LocalDateTime fin) {
+        if (!covers(debut)) {
+            return List.of();
+        }
+        return toAppointments(archivedAppointmentRepository.findByMedecinBetween(medecin, debut, fin));
+    }
+
+    /** Créneaux occupés par des rendez-vous archivés (TERMINE) d'un médecin sur une période */
+    public List<BookedSlot> findActiveByMedecinBetween(String medecin, LocalDateTime debut, LocalDateTime fin) {
+        if (!covers(debut)) {
+            return List.of();
+        }
+        return archivedAppointmentRepository.findActiveByMedecinBetween(medecin, debut, fin,
+                Appointment.StatutRendezVous.ANNULE);
+    }
+
+    public Optional<Appointment> findById(Long id) {
+        if (!covers(null)) {
+            return Optional.empty();
+        }
+        return archivedAppointmentRepository.findById(id).map(ArchivedAppointment::toAppointment);
+    }
+
+    /** Page de rendez-vous archivés d'ID strictement supérieur, triés par ID */
+    public List<Appointment> findPageAfter(long afterId, int size) {
+        if (!covers(null)) {
+            return List.of();
+        }
+        return toAppointments(archivedAppointmentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size)));
+    }
+
+    /** Parcourt toute l'archive sans la charger en mémoire (dans la transaction de l'appelant) */
+    public void streamAll(Consumer<Appointment> consumer) {
+        if (!covers(null)) {
+            return;
+        }
+        try (Stream<ArchivedAppointment> archived = archivedAppointmentRepository.streamAllByOrderByIdAsc()) {
+            archived.forEach(appointment -> {
+                consumer.accept(appointment.toAppointment());
+                entityManager.detach(appointment);
+            });
+        }
+    }
+
+    /** Rendez-vous déplacés dans l'archive par cette instance depuis le démarrage */
+    public long archivedCount() {
+        return archivedCount.get();
+    }
+
+    @Scheduled(initialDelayString = "${appointment.archive.interval-ms:3600000}",
+               fixedDelayString = "${appointment.archive.interval-ms:3600000}")
+    public void archiveClosedAppointments() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(after);
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            archivedCount.addAndGet(total);
+            log.info("Archivage : {} rendez-vous clos antérieurs au {} déplacés dans l'archive", total, cutoff);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = appointmentRepository.findArchivableIds(CLOSED, cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        appointmentRepository.copyToArchive(ids, Instant.now());
+        appointmentRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+
+    private static List<Appointment> toAppointments(List<ArchivedAppointment> archived) {
+        return archived.stream().map(ArchivedAppointment::toAppointment).toList();
+    }
+}
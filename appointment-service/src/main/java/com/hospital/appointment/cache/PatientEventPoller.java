@@ -0,0 +1,126 @@
+package com.hospital.appointment.cache;
+
+import com.hospital.appointment.client.PatientEventBatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lit périodiquement le journal d'événements de chaque instance du Patient Service
+ * et invalide le PatientExistenceCache en conséquence.
+ *
+ * Le journal est en mémoire, propre à chaque instance : une création ou une suppression n'apparaît
+ * que dans le journal de l'instance qui l'a traitée. Toutes les instances enregistrées sont donc lues,
+ * directement (sans load balancer), avec un curseur par instance.
+ * Une instance nouvelle, redémarrée (autre instanceId), disparue ou injoignable a pu publier
+ * des événements non lus : le cache est vidé, et il n'est utilisé que si toutes les instances ont été lues.
+ */
+@Component
+@Slf4j
+public class PatientEventPoller {
+
+    private static final String PATIENT_SERVICE = "patient-service";
+
+    private final DiscoveryClient discoveryClient;
+    private final RestClient restClient;
+    private final PatientExistenceCache patientExistenceCache;
+    private final int batchSize;
+
+    // Position courante dans le journal de chaque instance (clé : URI de l'instance)
+    private final Map<URI, Cursor> cursors = new HashMap<>();
+
+    public PatientEventPoller(DiscoveryClient discoveryClient,
+                              RestClient.Builder restClientBuilder,
+                              PatientExistenceCache patientExistenceCache,
+                              @Value("${patient-cache.events.batch-size:500}") int batchSize,
+                              @Value("${patient-cache.events.timeout-ms:1000}") int timeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        this.discoveryClient = discoveryClient;
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.patientExistenceCache = patientExistenceCache;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${patient-cache.events.poll-interval-ms:2000}")
+    public void poll() {
+        List<ServiceInstance> instances = discoveryClient.getInstances(PATIENT_SERVICE);
+        Set<URI> registered = new HashSet<>();
+        boolean synchronizedWithEvents = !instances.isEmpty();
+        for (ServiceInstance instance : instances) {
+            registered.add(instance.getUri());
+            synchronizedWithEvents &= poll(instance.getUri());
+        }
+
+        // Instance disparue : ses derniers événements ont pu être manqués
+        if (cursors.keySet().retainAll(registered)) {
+            log.debug("Instance du Patient Service disparue - cache d'existence vidé");
+            patientExistenceCache.invalidateAll();
+        }
+        patientExistenceCache.setSynchronizedWithEvents(synchronizedWithEvents);
+    }
+
+    /**
+     * Lit le journal d'une instance jusqu'à son dernier événement.
+     *
+     * @return false si le journal est inaccessible
+     */
+    private boolean poll(URI instance) {
+        PatientEventBatch batch;
+        do {
+            Cursor cursor = cursors.get(instance);
+            batch = fetch(instance, cursor == null ? null : cursor.sequence());
+            if (batch == null) {
+                // Journal inaccessible : des suppressions pourraient être manquées
+                cursors.remove(instance);
+                return false;
+            }
+
+            if (cursor == null || batch.reset() || !batch.instanceId().equals(cursor.instanceId())) {
+                log.debug("Resynchronisation sur le journal patients de {} (instance {}, séquence {})",
+                        instance, batch.instanceId(), batch.lastSequence());
+                patientExistenceCache.invalidateAll();
+                cursors.put(instance, new Cursor(batch.instanceId(), batch.lastSequence()));
+                return true;
+            }
+
+            // Création : efface un éventuel "n'existe pas" ; suppression : efface un "existe"
+            batch.events().forEach(event -> patientExistenceCache.invalidate(event.patientId()));
+            cursors.put(instance, new Cursor(batch.instanceId(), batch.lastSequence()));
+        } while (batch.events().size() >= batchSize);
+        return true;
+    }
+
+    private PatientEventBatch fetch(URI instance, Long after) {
+        URI uri = UriComponentsBuilder.fromUri(instance)
+                .path("/api/patients/events")
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParam("limit", batchSize)
+                .build().toUri();
+        try {
+            return restClient.get().uri(uri).retrieve().body(PatientEventBatch.class);
+        } catch (RestClientException e) {
+            log.warn("Lecture du journal patients de {} impossible : {}", instance, e.getMessage());
+            return null;
+        }
+    }
+
+    private record Cursor(String instanceId, long sequence) {
+    }
+}
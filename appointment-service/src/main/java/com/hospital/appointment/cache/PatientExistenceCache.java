@@ -0,0 +1,238 @@
+package com.hospital.appointment.cache;
+
+import com.hospital.common.client.PatientExistenceClient;
+import com.hospital.common.client.PatientExistenceCoalescer;
+import com.hospital.common.client.PatientServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache local (near-cache) de l'existence des patients.
+ *
+ * Évite un appel Feign au Patient Service à chaque création de rendez-vous.
+ * - Borné en taille (éviction LRU) et en durée de vie (TTL).
+ * - Invalidé par le PatientEventPoller à partir du journal d'événements du Patient Service.
+ * - Tant que le journal n'est pas synchronisé, le cache est contourné.
+ * - Mode strict : les réponses négatives ne sont jamais mises en cache,
+ *   un patient inconnu est donc toujours revérifié auprès du Patient Service.
+ * - Une réponse de fallback ("fallback": true) n'est ni mise en cache ni confondue avec
+ *   un patient inexistant : elle lève PatientServiceUnavailableException.
+ */
+@Component
+@Slf4j
+public class PatientExistenceCache {
+
+    private final PatientExistenceCoalescer patientExistenceCoalescer;
+    private final boolean enabled;
+    private final boolean strict;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // LinkedHashMap en ordre d'accès = LRU ; protégé par synchronized(entries)
+    private final LinkedHashMap<Long, Entry> entries;
+
+    // Incrémenté à chaque invalidation : une réponse obtenue pendant une invalidation n'est pas stockée
+    private final AtomicLong invalidationVersion = new AtomicLong();
+    private volatile boolean synchronizedWithEvents = false;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PatientExistenceCache(PatientExistenceCoalescer patientExistenceCoalescer,
+                                 @Value("${patient-cache.enabled:true}") boolean enabled,
+                                 @Value("${patient-cache.strict:false}") boolean strict,
+                                 @Value("${patient-cache.max-size:100000}") int maxSize,
+                                 @Value("${patient-cache.ttl:10m}") Duration ttl) {
+        this.patientExistenceCoalescer = patientExistenceCoalescer;
+        this.enabled = enabled;
+        this.strict = strict;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > PatientExistenceCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Indique si le patient existe, en interrogeant le Patient Service uniquement en cas d'absence du cache.
+     *
+     * @throws PatientServiceUnavailableException si le Patient Service n'a pas pu répondre
+     */
+    public boolean patientExists(Long patientId) {
+        if (!enabled || !synchronizedWithEvents) {
+            bypasses.increment();
+            return PatientExistenceClient.exists(patientId, patientExistenceCoalescer.checkPatientExists(patientId));
+        }
+
+        Boolean cached = lookup(patientId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        long version = invalidationVersion.get();
+        return remember(patientId, patientExistenceCoalescer.checkPatientExists(patientId), version);
+    }
+
+    /**
+     * Variante non bloquante de patientExists : "remoteCheck" (réponse au format de
+     * GET /api/patients/{id}/exists) n'est souscrit qu'en cas d'absence du cache.
+     * Une réponse de fallback termine le Mono en erreur (PatientServiceUnavailableException).
+     */
+    public Mono<Boolean> patientExists(Long patientId, Mono<Map<String, Boolean>> remoteCheck) {
+        if (!enabled || !synchronizedWithEvents) {
+            bypasses.increment();
+            return remoteCheck.map(response -> PatientExistenceClient.exists(patientId, response));
+        }
+
+        Boolean cached = lookup(patientId);
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+        misses.increment();
+
+        return Mono.defer(() -> {
+            long version = invalidationVersion.get();
+            return remoteCheck.map(response -> remember(patientId, response, version));
+        });
+    }
+
+    /**
+     * Vérifie l'existence de plusieurs patients : les absents du cache partent en un seul appel batch.
+     * Les IDs absents du résultat n'ont pas pu être vérifiés (Patient Service indisponible).
+     */
+    public Map<Long, Boolean> patientsExist(Collection<Long> patientIds) {
+        if (!enabled || !synchronizedWithEvents) {
+            bypasses.add(patientIds.size());
+            return patientExistenceCoalescer.checkPatientsExist(patientIds);
+        }
+
+        Map<Long, Boolean> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long patientId : patientIds) {
+            Boolean cached = lookup(patientId);
+            if (cached != null) {
+                result.put(patientId, cached);
+            } else {
+                missing.add(patientId);
+            }
+        }
+        hits.add(result.size());
+        misses.add(missing.size());
+
+        if (!missing.isEmpty()) {
+            long version = invalidationVersion.get();
+            Map<Long, Boolean> fetched = patientExistenceCoalescer.checkPatientsExist(missing);
+            fetched.forEach((patientId, exists) -> {
+                if (exists || !strict) {
+                    store(patientId, exists, version);
+                }
+            });
+            result.putAll(fetched);
+        }
+        return result;
+    }
+
+    /** Invalide l'entrée d'un patient (création ou suppression signalée par le journal). */
+    public void invalidate(Long patientId) {
+        invalidationVersion.incrementAndGet();
+        synchronized (entries) {
+            if (entries.remove(patientId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /** Vide le cache (journal perdu, redémarrage du Patient Service...). */
+    public void invalidateAll() {
+        invalidationVersion.incrementAndGet();
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /** Active ou suspend l'utilisation du cache selon l'état de synchronisation avec le journal. */
+    public void setSynchronizedWithEvents(boolean value) {
+        if (!value) {
+            invalidateAll();
+        }
+        if (synchronizedWithEvents != value) {
+            log.info("Cache d'existence patients {}", value ? "synchronisé" : "désynchronisé - contourné");
+        }
+        this.synchronizedWithEvents = value;
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(enabled, strict, synchronizedWithEvents, size,
+                hits.sum(), misses.sum(), bypasses.sum(), evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    private boolean remember(Long patientId, Map<String, Boolean> response, long version) {
+        boolean exists = PatientExistenceClient.exists(patientId, response);
+        if (exists || !strict) {
+            store(patientId, exists, version);
+        }
+        return exists;
+    }
+
+    private Boolean lookup(Long patientId) {
+        synchronized (entries) {
+            Entry entry = entries.get(patientId);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.storedAt() > ttlNanos) {
+                entries.remove(patientId);
+                expirations.increment();
+                return null;
+            }
+            return entry.exists();
+        }
+    }
+
+    private void store(Long patientId, boolean exists, long version) {
+        synchronized (entries) {
+            if (invalidationVersion.get() == version) {
+                entries.put(patientId, new Entry(exists, System.nanoTime()));
+            }
+        }
+    }
+
+    private record Entry(boolean exists, long storedAt) {
+    }
+
+    /** Statistiques exposées par GET /api/appointments/cache/patients. */
+    public record Stats(boolean enabled, boolean strict, boolean synchronizedWithEvents, int size,
+                        long hits, long misses, long bypasses, long evictions, long expirations, long invalidations) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.hospital.appointment.client;
+
+import java.util.List;
+
+/**
+ * Page du journal d'événements du Patient Service (GET /api/patients/events).
+ * Miroir du format exposé par le Patient Service.
+ */
+public record PatientEventBatch(String instanceId, long lastSequence, boolean reset, List<PatientEvent> events) {
+
+    public record PatientEvent(long sequence, String type, Long patientId) {
+    }
+}
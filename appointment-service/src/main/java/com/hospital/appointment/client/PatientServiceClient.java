@@ -1,10 +1,7 @@
 package com.hospital.appointment.client;
 
+import com.hospital.common.client.PatientExistenceClient;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-
-import java.util.Map;
 
 /**
  * Client Feign pour communiquer avec le Patient Service.
@@ -16,18 +13,12 @@ import java.util.Map;
  *
  * Grâce à Eureka, Feign résout automatiquement l'adresse de "patient-service"
  * sans avoir à coder l'URL en dur.
+ * Les méthodes et leurs URLs sont déclarées par PatientExistenceClient (module common).
  */
 @FeignClient(
     name = "patient-service",
     path = "/api/patients",
     fallback = PatientServiceFallback.class  // Activé quand le circuit est ouvert
 )
-public interface PatientServiceClient {
-
-    /**
-     * Vérifie si un patient existe dans le Patient Service.
-     * Appel REST : GET http://patient-service/api/patients/{id}/exists
-     */
-    @GetMapping("/{id}/exists")
-    Map<String, Boolean> checkPatientExists(@PathVariable("id") Long id);
+public interface PatientServiceClient extends PatientExistenceClient {
 }
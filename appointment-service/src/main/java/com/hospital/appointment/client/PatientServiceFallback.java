@@ -3,6 +3,7 @@ package com.hospital.appointment.client;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -27,7 +28,17 @@ public class PatientServiceFallback implements PatientServiceClient {
     @Override
     public Map<String, Boolean> checkPatientExists(Long id) {
         log.warn("[FALLBACK] Patient Service indisponible - impossible de vérifier l'existence du patient ID: {}", id);
-        // On retourne false pour refuser la création du RDV sans confirmation du patient
-        return Map.of("exists", false);
+        // On retourne false pour refuser la création du RDV sans confirmation du patient.
+        // "fallback" signale que la réponse ne doit pas être mise en cache.
+        return Map.of("exists", false, "fallback", true);
+    }
+
+    /**
+     * Réponse vide : les IDs absents de la réponse sont considérés comme "non vérifiés".
+     */
+    @Override
+    public Map<Long, Boolean> checkPatientsExist(Collection<Long> ids) {
+        log.warn("[FALLBACK] Patient Service indisponible - impossible de vérifier {} patient(s)", ids.size());
+        return Map.of();
     }
 }
@@ -0,0 +1,54 @@
+package com.hospital.appointment.client;
+
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Client non bloquant du Patient Service (WebClient), utilisé par le chemin de création réactif.
+ *
+ * Même contrat que PatientServiceClient.checkPatientExists, résolu via le load balancer
+ * ("patient-service" est remplacé par une instance enregistrée dans Eureka).
+ * L'appel est borné par le TimeLimiter "patientService" ; les erreurs sont propagées
+ * à l'appelant, qui les soumet au circuit breaker "patientService".
+ */
+@Component
+@ConditionalOnProperty(name = "appointment.reactive.enabled", havingValue = "true")
+public class ReactivePatientClient {
+
+    private static final ParameterizedTypeReference<Map<String, Boolean>> EXISTS_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final TimeLimiter timeLimiter;
+
+    public ReactivePatientClient(WebClient.Builder webClientBuilder,
+                                 ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                                 TimeLimiterRegistry timeLimiterRegistry) {
+        this.webClient = webClientBuilder
+                .baseUrl("http://patient-service/api/patients")
+                .filter(loadBalancerFunction)
+                .build();
+        this.timeLimiter = timeLimiterRegistry.timeLimiter("patientService");
+    }
+
+    /**
+     * Vérifie si un patient existe.
+     * Appel REST : GET http://patient-service/api/patients/{id}/exists
+     */
+    public Mono<Map<String, Boolean>> checkPatientExists(Long id) {
+        return webClient.get()
+                .uri("/{id}/exists", id)
+                .retrieve()
+                .bodyToMono(EXISTS_RESPONSE)
+                .transformDeferred(TimeLimiterOperator.of(timeLimiter));
+    }
+}
@@ -1,85 +1,141 @@
 package com.hospital.appointment.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.appointment.dto.ImportResult;
 import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.exception.AppointmentArchivedException;
 import com.hospital.appointment.exception.AppointmentNotFoundException;
+import com.hospital.appointment.exception.SlotConflictException;
+import com.hospital.appointment.service.AppointmentImportService;
 import com.hospital.appointment.service.AppointmentService;
-import jakarta.validation.Valid;
+import com.hospital.common.web.NdjsonWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Contrôleur REST Appointment.
  * Expose les endpoints de gestion des rendez-vous.
+ * Création et lecture par ID : BlockingAppointmentController (par défaut)
+ * ou ReactiveAppointmentController (appointment.reactive.enabled=true).
  */
 @RestController
 @RequestMapping("/api/appointments")
 @RequiredArgsConstructor
 public class AppointmentController {
 
+    // Nombre maximum de rendez-vous par requête d'import
+    private static final int MAX_IMPORT_ROWS = 50_000;
+    // Période maximale d'une recherche de créneaux libres
+    private static final Duration MAX_FREE_SLOTS_RANGE = Duration.ofDays(31);
+
     private final AppointmentService appointmentService;
+    private final AppointmentImportService appointmentImportService;
+    private final ObjectMapper objectMapper;
 
-    /** GET /api/appointments - Tous les rendez-vous */
+    /**
+     * GET /api/appointments?depuis=... - Tous les rendez-vous, à partir d'une date si "depuis" est fourni
+     * (les rendez-vous archivés ne sont lus que si la période commence avant l'horizon de l'archive)
+     */
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
-        return ResponseEntity.ok(appointmentService.getAllAppointments());
+    public ResponseEntity<List<Appointment>> getAllAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime depuis) {
+        return ResponseEntity.ok(appointmentService.getAllAppointments(depuis));
     }
 
-    /** GET /api/appointments/{id} - Un rendez-vous par ID */
-    @GetMapping("/{id}")
-    public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id) {
+    /** GET /api/appointments/page?cursor=...&size=100 - Page de rendez-vous (pagination par curseur) */
+    @GetMapping("/page")
+    public ResponseEntity<?> getAppointmentsPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "100") int size) {
         try {
-            return ResponseEntity.ok(appointmentService.getAppointmentById(id));
-        } catch (AppointmentNotFoundException e) {
-            return ResponseEntity.notFound().build();
+            return ResponseEntity.ok(appointmentService.getAppointmentsPage(cursor, Math.max(1, Math.min(size, 1000))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    /** GET /api/appointments/patient/{patientId} - RDV d'un patient */
+    /** GET /api/appointments/stream - Tous les rendez-vous en NDJSON (un objet JSON par ligne) */
+    @GetMapping(value = "/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public void streamAllAppointments(HttpServletResponse response) throws IOException {
+        NdjsonWriter writer = NdjsonWriter.open(response, objectMapper);
+        appointmentService.streamAllAppointments(writer::writeLine);
+        writer.flush();
+    }
+
+    /** GET /api/appointments/patient/{patientId}?depuis=... - RDV d'un patient (tout l'historique sans "depuis") */
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<List<Appointment>> getAppointmentsByPatient(@PathVariable Long patientId) {
-        return ResponseEntity.ok(appointmentService.getAppointmentsByPatientId(patientId));
+    public ResponseEntity<List<Appointment>> getAppointmentsByPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime depuis) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsByPatientId(patientId, depuis));
     }
 
     /**
-     * POST /api/appointments - Crée un rendez-vous.
-     * Vérifie d'abord l'existence du patient via le Patient Service.
+     * GET /api/appointments/medecin/{medecinNom}/creneaux-libres?debut=...&fin=...
+     * Créneaux libres d'un médecin sur une période (31 jours maximum).
      */
-    @PostMapping
-    public ResponseEntity<?> createAppointment(@Valid @RequestBody Appointment appointment) {
-        try {
-            Appointment created = appointmentService.createAppointment(appointment);
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
-        } catch (IllegalArgumentException e) {
-            // Patient introuvable
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (RuntimeException e) {
-            // Service indisponible (Circuit Breaker ouvert)
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    @GetMapping("/medecin/{medecinNom}/creneaux-libres")
+    public ResponseEntity<?> getFreeSlots(@PathVariable String medecinNom,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin) {
+        if (!fin.isAfter(debut) || Duration.between(debut, fin).compareTo(MAX_FREE_SLOTS_RANGE) > 0) {
+            return ResponseEntity.badRequest().body("Période invalide (fin après début, 31 jours maximum)");
+        }
+        return ResponseEntity.ok(appointmentService.getFreeSlots(medecinNom, debut, fin));
+    }
+
+    /**
+     * POST /api/appointments/import - Import en masse de rendez-vous.
+     * Chaque ligne est validée et son patient vérifié ; la réponse détaille le résultat ligne par ligne.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importAppointments(@RequestBody List<Appointment> appointments) {
+        if (appointments.size() > MAX_IMPORT_ROWS) {
+            return ResponseEntity.badRequest().body("Trop de rendez-vous dans la requête (maximum " + MAX_IMPORT_ROWS + ")");
         }
+        ImportResult result = appointmentImportService.importAppointments(appointments);
+        return ResponseEntity.ok(result);
     }
 
     /** PATCH /api/appointments/{id}/annuler - Annule un rendez-vous */
     @PatchMapping("/{id}/annuler")
-    public ResponseEntity<Appointment> cancelAppointment(@PathVariable Long id) {
+    public ResponseEntity<?> cancelAppointment(@PathVariable Long id) {
         try {
             return ResponseEntity.ok(appointmentService.cancelAppointment(id));
         } catch (AppointmentNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (AppointmentArchivedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Rendez-vous modifié en même temps par une autre requête
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
     /** PATCH /api/appointments/{id}/statut - Met à jour le statut */
     @PatchMapping("/{id}/statut")
-    public ResponseEntity<Appointment> updateStatut(@PathVariable Long id,
-                                                     @RequestParam Appointment.StatutRendezVous statut) {
+    public ResponseEntity<?> updateStatut(@PathVariable Long id,
+                                          @RequestParam Appointment.StatutRendezVous statut) {
         try {
             return ResponseEntity.ok(appointmentService.updateStatut(id, statut));
         } catch (AppointmentNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (AppointmentArchivedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (SlotConflictException e) {
+            // Réactivation d'un rendez-vous annulé dont le créneau a été repris
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Le rendez-vous a été modifié par une autre requête");
         }
     }
 }
@@ -0,0 +1,86 @@
+package com.hospital.appointment.controller;
+
+import com.hospital.appointment.outbox.AppointmentEventBatch;
+import com.hospital.appointment.outbox.OutboxRelay;
+import com.hospital.appointment.schedule.DoctorScheduleFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Flux des changements de rendez-vous, pour les consommateurs qui interrogeaient
+ * GET /api/appointments en boucle (notifications, tableaux de service, écrans d'accueil).
+ */
+@RestController
+@RequestMapping("/api/appointments/events")
+@RequiredArgsConstructor
+public class AppointmentEventController {
+
+    // Attente maximale d'une lecture long-poll
+    private static final int MAX_WAIT_SECONDS = 30;
+
+    private final OutboxRelay outboxRelay;
+    private final DoctorScheduleFeed doctorScheduleFeed;
+
+    /**
+     * GET /api/appointments/events?after={offset}&wait=20 - Changements de statut postérieurs à "after".
+     * Sans événement disponible, la réponse attend au plus "wait" secondes le prochain lot.
+     * Sans "after", renvoie la position courante du flux.
+     */
+    @GetMapping
+    public DeferredResult<AppointmentEventBatch> getEvents(@RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "500") int limit,
+                                                           @RequestParam(defaultValue = "0") int wait) {
+        return outboxRelay.poll(after, Math.max(1, Math.min(limit, 1000)),
+                Duration.ofSeconds(Math.max(0, Math.min(wait, MAX_WAIT_SECONDS))));
+    }
+
+    /**
+     * GET /api/appointments/events/stream?after={offset} - Flux SSE, un message "appointment-status" par lot.
+     * À la reconnexion, l'en-tête Last-Event-ID (dernier offset reçu) remplace "after".
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@RequestParam(required = false) Long after,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        try {
+            return ResponseEntity.ok(outboxRelay.subscribe(lastEventId != null ? lastEventId : after));
+        } catch (IllegalStateException e) {
+            return tooManySubscribers();
+        }
+    }
+
+    /**
+     * GET /api/appointments/events/planning?medecin=...&jour=2025-01-15 - Planning du jour en direct (SSE).
+     * Message "planning" (rendez-vous du jour), puis un message "rendez-vous" par création ou changement de statut.
+     */
+    @GetMapping(value = "/planning", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSchedule(@RequestParam String medecin,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate jour) {
+        if (medecin.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(doctorScheduleFeed.subscribe(medecin, jour));
+        } catch (IllegalStateException e) {
+            return tooManySubscribers();
+        }
+    }
+
+    // Nombre maximal de connexions SSE atteint
+    private static ResponseEntity<SseEmitter> tooManySubscribers() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.hospital.appointment.controller;
+
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.exception.AppointmentNotFoundException;
+import com.hospital.appointment.exception.SlotConflictException;
+import com.hospital.appointment.service.AppointmentService;
+import com.hospital.common.client.PatientServiceUnavailableException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Création et lecture par ID des rendez-vous, chemin par défaut : traitées sur le thread de la requête.
+ * Remplacé par ReactiveAppointmentController avec appointment.reactive.enabled=true.
+ */
+@RestController
+@RequestMapping("/api/appointments")
+@ConditionalOnProperty(name = "appointment.reactive.enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class BlockingAppointmentController {
+
+    private final AppointmentService appointmentService;
+
+    /** GET /api/appointments/{id} - Un rendez-vous par ID (ETag : version ; 304 si If-None-Match correspond) */
+    @GetMapping("/{id}")
+    public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id) {
+        try {
+            Appointment appointment = appointmentService.getAppointmentById(id);
+            return ResponseEntity.ok().eTag("\"" + appointment.getVersion() + "\"").body(appointment);
+        } catch (AppointmentNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * POST /api/appointments - Crée un rendez-vous.
+     * Vérifie d'abord l'existence du patient via le Patient Service.
+     */
+    @PostMapping
+    public ResponseEntity<?> createAppointment(@Valid @RequestBody Appointment appointment) {
+        try {
+            Appointment created = appointmentService.createAppointment(appointment);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            // Patient introuvable
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SlotConflictException e) {
+            // Médecin déjà occupé sur ce créneau
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (PatientServiceUnavailableException e) {
+            // Patient Service indisponible (fallback, Circuit Breaker ouvert)
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
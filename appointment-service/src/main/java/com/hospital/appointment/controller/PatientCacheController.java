@@ -0,0 +1,25 @@
+package com.hospital.appointment.controller;
+
+import com.hospital.appointment.cache.PatientExistenceCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Statistiques du cache local d'existence des patients.
+ */
+@RestController
+@RequestMapping("/api/appointments/cache")
+@RequiredArgsConstructor
+public class PatientCacheController {
+
+    private final PatientExistenceCache patientExistenceCache;
+
+    /** GET /api/appointments/cache/patients - Hits, misses, évictions... */
+    @GetMapping("/patients")
+    public ResponseEntity<PatientExistenceCache.Stats> getPatientCacheStats() {
+        return ResponseEntity.ok(patientExistenceCache.stats());
+    }
+}
@@ -0,0 +1,57 @@
+package com.hospital.appointment.controller;
+
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.exception.AppointmentNotFoundException;
+import com.hospital.appointment.exception.SlotConflictException;
+import com.hospital.appointment.service.ReactiveAppointmentService;
+import com.hospital.common.client.PatientServiceUnavailableException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Création et lecture par ID des rendez-vous par le chemin non bloquant (ReactiveAppointmentService),
+ * avec appointment.reactive.enabled=true (profil reactive) : mêmes réponses que BlockingAppointmentController,
+ * le thread de la requête est libéré pendant l'appel au Patient Service.
+ */
+@RestController
+@RequestMapping("/api/appointments")
+@ConditionalOnProperty(name = "appointment.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveAppointmentController {
+
+    private final ReactiveAppointmentService reactiveAppointmentService;
+
+    /** GET /api/appointments/{id} - Un rendez-vous par ID (ETag : version ; 304 si If-None-Match correspond) */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Appointment>> getAppointmentById(@PathVariable Long id) {
+        return reactiveAppointmentService.getAppointmentById(id)
+                .map(found -> ResponseEntity.ok().eTag("\"" + found.getVersion() + "\"").body(found))
+                .onErrorResume(AppointmentNotFoundException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * POST /api/appointments - Crée un rendez-vous.
+     * Vérifie d'abord l'existence du patient via le Patient Service.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<?>> createAppointment(@Valid @RequestBody Appointment appointment) {
+        return reactiveAppointmentService.createAppointment(appointment)
+                .<ResponseEntity<?>>map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved))
+                // Patient introuvable
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                // Médecin déjà occupé sur ce créneau
+                .onErrorResume(SlotConflictException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage())))
+                // Patient Service indisponible (fallback, Circuit Breaker ouvert)
+                .onErrorResume(PatientServiceUnavailableException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage())));
+    }
+}
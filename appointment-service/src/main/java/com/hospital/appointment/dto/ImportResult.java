@@ -0,0 +1,29 @@
+package com.hospital.appointment.dto;
+
+import java.util.List;
+
+/**
+ * Compte rendu d'un import de rendez-vous : une ligne de résultat par rendez-vous reçu,
+ * dans l'ordre de la requête.
+ */
+public record ImportResult(int total, int created, int rejected, List<RowResult> results) {
+
+    public enum RowStatus {
+        CREATED,   // Rendez-vous enregistré
+        REJECTED   // Ligne refusée (voir error)
+    }
+
+    /**
+     * Résultat d'une ligne : index dans la requête, ID créé ou message d'erreur.
+     */
+    public record RowResult(int index, RowStatus status, Long id, String error) {
+
+        public static RowResult created(int index, Long id) {
+            return new RowResult(index, RowStatus.CREATED, id, null);
+        }
+
+        public static RowResult rejected(int index, String error) {
+            return new RowResult(index, RowStatus.REJECTED, null, error);
+        }
+    }
+}
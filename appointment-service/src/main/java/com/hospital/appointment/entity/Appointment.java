@@ -1,6 +1,8 @@
 package com.hospital.appointment.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,14 +16,24 @@ import java.time.LocalDateTime;
  * car les données patient vivent dans un autre microservice.
  */
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    // Recherche des créneaux d'un médecin sur une période
+    @Index(name = "idx_appointments_medecin_date", columnList = "medecin_nom, date_heure"),
+    // Rendez-vous d'un patient
+    @Index(name = "idx_appointments_patient", columnList = "patient_id"),
+    // Recherche par période et sélection des rendez-vous à archiver (AppointmentArchive)
+    @Index(name = "idx_appointments_date", columnList = "date_heure")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Appointment {
 
+    // Séquence avec allocation par blocs de 50 : permet à Hibernate de regrouper les INSERT (JDBC batch),
+    // ce que GenerationType.IDENTITY empêche
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
     // ID du patient (référence vers le Patient Service, pas une clé étrangère JPA)
@@ -33,6 +45,7 @@ public class Appointment {
     @Column(name = "date_heure", nullable = false)
     private LocalDateTime dateHeure;
 
+    @NotBlank(message = "Le motif du rendez-vous est obligatoire")
     @Column(nullable = false)
     private String motif;
 
@@ -47,6 +60,11 @@ public class Appointment {
     @Column
     private String notes;
 
+    // Verrouillage optimiste : deux changements de statut concurrents ne s'écrasent pas
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     /**
      * Enum des statuts possibles d'un rendez-vous.
      */
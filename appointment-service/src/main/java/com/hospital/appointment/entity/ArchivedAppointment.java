@@ -0,0 +1,63 @@
+package com.hospital.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Rendez-vous clos (TERMINE ou ANNULE) déplacé hors de la table appointments par AppointmentArchive.
+ *
+ * Même identifiant et mêmes données que le rendez-vous d'origine, version comprise (ETag inchangé).
+ * Table en insertion seule : un rendez-vous archivé n'est plus modifié ni verrouillé.
+ */
+@Entity
+@Immutable
+@Table(name = "appointments_archive", indexes = {
+    // Historique d'un patient
+    @Index(name = "idx_appointments_archive_patient", columnList = "patient_id"),
+    // Planning d'un médecin sur une période passée
+    @Index(name = "idx_appointments_archive_medecin_date", columnList = "medecin_nom, date_heure"),
+    // Recherche par période
+    @Index(name = "idx_appointments_archive_date", columnList = "date_heure")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedAppointment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "date_heure", nullable = false)
+    private LocalDateTime dateHeure;
+
+    @Column(nullable = false)
+    private String motif;
+
+    @Column(name = "medecin_nom")
+    private String medecinNom;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Appointment.StatutRendezVous statut;
+
+    @Column
+    private String notes;
+
+    @Column
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    /** Rendez-vous tel qu'il était avant l'archivage (détaché, réponses de l'API) */
+    public Appointment toAppointment() {
+        return new Appointment(id, patientId, dateHeure, motif, medecinNom, statut, notes, version);
+    }
+}
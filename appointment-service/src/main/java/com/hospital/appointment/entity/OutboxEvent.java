@@ -0,0 +1,71 @@
+package com.hospital.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Changement de statut d'un rendez-vous, enregistré dans la même transaction que le changement
+ * (outbox transactionnelle) : un changement validé est toujours publié, un rollback ne publie rien.
+ *
+ * publishedOffset est attribué par OutboxRelay au moment de la publication ; c'est la position
+ * de l'événement dans le flux GET /api/appointments/events (null = pas encore publié).
+ */
+@Entity
+@Table(name = "appointment_outbox", indexes = {
+    // Lecture du flux à partir d'une position, et recherche des événements non publiés
+    @Index(name = "idx_outbox_published_offset", columnList = "published_offset", unique = true)
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "appointment_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "medecin_nom")
+    private String medecinNom;
+
+    @Column(name = "date_heure", nullable = false)
+    private LocalDateTime dateHeure;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ancien_statut")
+    private Appointment.StatutRendezVous ancienStatut;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "nouveau_statut", nullable = false)
+    private Appointment.StatutRendezVous nouveauStatut;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_offset")
+    private Long publishedOffset;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    public static OutboxEvent statusChange(Appointment appointment, Appointment.StatutRendezVous ancienStatut) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAppointmentId(appointment.getId());
+        event.setPatientId(appointment.getPatientId());
+        event.setMedecinNom(appointment.getMedecinNom());
+        event.setDateHeure(appointment.getDateHeure());
+        event.setAncienStatut(ancienStatut);
+        event.setNouveauStatut(appointment.getStatut());
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hospital.appointment.event;
+
+import com.hospital.appointment.entity.Appointment;
+
+/**
+ * Événement applicatif publié à chaque création de rendez-vous (unitaire ou import)
+ * et à chaque changement de statut. Il est traité une fois la transaction validée
+ * (planning des médecins en direct, DoctorScheduleFeed).
+ *
+ * appointment : état du rendez-vous après l'opération.
+ */
+public record AppointmentChangedEvent(Type type, Appointment appointment) {
+
+    public enum Type {
+        CREATED,          // Nouveau rendez-vous
+        STATUS_CHANGED    // Confirmation, annulation, fin de consultation...
+    }
+}
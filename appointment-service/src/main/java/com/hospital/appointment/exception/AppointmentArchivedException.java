@@ -0,0 +1,10 @@
+package com.hospital.appointment.exception;
+
+/**
+ * Le rendez-vous est clos et archivé (AppointmentArchive) : il ne peut plus être modifié.
+ */
+public class AppointmentArchivedException extends RuntimeException {
+    public AppointmentArchivedException(Long id) {
+        super("Le rendez-vous " + id + " est clos et archivé, il ne peut plus être modifié");
+    }
+}
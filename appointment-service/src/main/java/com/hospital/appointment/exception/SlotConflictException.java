@@ -0,0 +1,12 @@
+package com.hospital.appointment.exception;
+
+import java.time.LocalDateTime;
+
+/**
+ * Le médecin a déjà un rendez-vous qui chevauche le créneau demandé.
+ */
+public class SlotConflictException extends RuntimeException {
+    public SlotConflictException(String medecinNom, LocalDateTime dateHeure) {
+        super("Le médecin " + medecinNom + " a déjà un rendez-vous sur le créneau du " + dateHeure);
+    }
+}
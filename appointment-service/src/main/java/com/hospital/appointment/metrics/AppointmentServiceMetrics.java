@@ -0,0 +1,70 @@
+package com.hospital.appointment.metrics;
+
+import com.hospital.appointment.archive.AppointmentArchive;
+import com.hospital.appointment.cache.PatientExistenceCache;
+import com.hospital.appointment.outbox.OutboxRelay;
+import com.hospital.appointment.schedule.DoctorScheduleFeed;
+import com.hospital.appointment.sse.SseSubscriptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compteurs propres à l'Appointment Service, exposés sur /actuator/prometheus :
+ * cache d'existence des patients, connexions SSE, plannings suivis, position de l'outbox et archivage des rendez-vous clos.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentServiceMetrics implements MeterBinder {
+
+    private final PatientExistenceCache patientExistenceCache;
+    private final SseSubscriptions sseSubscriptions;
+    private final DoctorScheduleFeed doctorScheduleFeed;
+    private final OutboxRelay outboxRelay;
+    private final AppointmentArchive appointmentArchive;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("patient.cache.size", patientExistenceCache, c -> c.stats().size())
+                .register(registry);
+        Gauge.builder("patient.cache.synchronized", patientExistenceCache, c -> c.stats().synchronizedWithEvents() ? 1 : 0)
+                .description("1 si le cache suit le journal d'événements du Patient Service")
+                .register(registry);
+        cache(registry, "hit", PatientExistenceCache.Stats::hits);
+        cache(registry, "miss", PatientExistenceCache.Stats::misses);
+        cache(registry, "bypass", PatientExistenceCache.Stats::bypasses);
+        FunctionCounter.builder("patient.cache.evictions", patientExistenceCache, c -> c.stats().evictions())
+                .tag("cause", "size").register(registry);
+        FunctionCounter.builder("patient.cache.evictions", patientExistenceCache, c -> c.stats().expirations())
+                .tag("cause", "expired").register(registry);
+        FunctionCounter.builder("patient.cache.evictions", patientExistenceCache, c -> c.stats().invalidations())
+                .tag("cause", "invalidated").register(registry);
+
+        Gauge.builder("sse.subscribers", sseSubscriptions, SseSubscriptions::openCount)
+                .description("Connexions SSE ouvertes")
+                .register(registry);
+        FunctionCounter.builder("sse.subscribers.dropped", sseSubscriptions, SseSubscriptions::droppedCount)
+                .description("Abonnés déconnectés car trop lents")
+                .register(registry);
+        Gauge.builder("schedule.feed.topics", doctorScheduleFeed, DoctorScheduleFeed::topicCount)
+                .description("Plannings (médecin, jour) suivis en direct")
+                .register(registry);
+        Gauge.builder("outbox.offset", outboxRelay, OutboxRelay::currentOffset)
+                .description("Position du dernier événement publié")
+                .register(registry);
+        FunctionCounter.builder("appointments.archived", appointmentArchive, AppointmentArchive::archivedCount)
+                .description("Rendez-vous clos déplacés dans l'archive")
+                .register(registry);
+    }
+
+    private void cache(MeterRegistry registry, String result, ToDoubleFunction<PatientExistenceCache.Stats> count) {
+        FunctionCounter.builder("patient.cache.lookups", patientExistenceCache, c -> count.applyAsDouble(c.stats()))
+                .tag("result", result)
+                .register(registry);
+    }
+}
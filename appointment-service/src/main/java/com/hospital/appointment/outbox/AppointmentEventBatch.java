@@ -0,0 +1,13 @@
+package com.hospital.appointment.outbox;
+
+import java.util.List;
+
+/**
+ * Réponse de GET /api/appointments/events (et message du flux SSE).
+ *
+ * - lastOffset : position du dernier événement renvoyé, à renvoyer comme curseur "after"
+ * - reset : true si le curseur du client n'est plus exploitable (événements purgés ou
+ *   base réinitialisée) ; le client doit relire l'état complet puis reprendre à lastOffset
+ */
+public record AppointmentEventBatch(long lastOffset, boolean reset, List<AppointmentStatusEvent> events) {
+}
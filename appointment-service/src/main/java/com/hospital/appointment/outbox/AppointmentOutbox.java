@@ -0,0 +1,34 @@
+package com.hospital.appointment.outbox;
+
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.entity.OutboxEvent;
+import com.hospital.appointment.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Écriture dans l'outbox, dans la transaction de l'appelant.
+ * Le relais est réveillé après le commit : l'événement est publié sans attendre la lecture périodique.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelay outboxRelay;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Appointment appointment, Appointment.StatutRendezVous ancienStatut) {
+        outboxEventRepository.save(OutboxEvent.statusChange(appointment, ancienStatut));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.hospital.appointment.outbox;
+
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.entity.OutboxEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Changement de statut publié dans le flux GET /api/appointments/events.
+ * offset : position strictement croissante dans le flux, à renvoyer comme curseur "after".
+ */
+public record AppointmentStatusEvent(long offset,
+                                     Long appointmentId,
+                                     Long patientId,
+                                     String medecinNom,
+                                     LocalDateTime dateHeure,
+                                     Appointment.StatutRendezVous ancienStatut,
+                                     Appointment.StatutRendezVous nouveauStatut,
+                                     Instant occurredAt) {
+
+    static AppointmentStatusEvent of(OutboxEvent event) {
+        return new AppointmentStatusEvent(event.getPublishedOffset(), event.getAppointmentId(), event.getPatientId(),
+                event.getMedecinNom(), event.getDateHeure(), event.getAncienStatut(), event.getNouveauStatut(),
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,270 @@
+package com.hospital.appointment.outbox;
+
+import com.hospital.appointment.entity.OutboxEvent;
+import com.hospital.appointment.repository.OutboxEventRepository;
+import com.hospital.appointment.sse.SseSubscriber;
+import com.hospital.appointment.sse.SseSubscriptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relais de l'outbox : publie les changements de statut validés, sans broker externe.
+ *
+ * Un seul thread ("outbox-relay") lit les événements non publiés dans l'ordre d'enregistrement,
+ * leur attribue une position (offset) croissante et les marque publiés dans la même transaction.
+ * Il est réveillé après chaque commit (AppointmentOutbox) et périodiquement (rattrapage).
+ *
+ * Lecture du flux, à partir d'une position :
+ * - GET /api/appointments/events?after=...&wait=... : long-poll, la requête attend le prochain lot ;
+ * - GET /api/appointments/events/stream : SSE, un message par lot (id = dernier offset du lot).
+ * Les positions sont stockées en base : un client reprend où il s'était arrêté.
+ * Les événements publiés sont purgés après appointment.outbox.retention.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String SSE_EVENT_NAME = "appointment-status";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SseSubscriptions sseSubscriptions;
+    private final int batchSize;
+    private final Duration retention;
+    private final ExecutorService relayExecutor;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    // Position du dernier événement publié ; modifiée par le thread du relais, sous synchronized(this)
+    private long lastOffset;
+    // Lectures long-poll en attente du prochain lot ; protégé par synchronized(this)
+    private final Set<Waiter> waiters = new LinkedHashSet<>();
+    // Abonnés SSE à jour (rattrapage terminé) ; modifié par le thread du relais
+    private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       TransactionTemplate transactionTemplate,
+                       SseSubscriptions sseSubscriptions,
+                       @Value("${appointment.outbox.batch-size:500}") int batchSize,
+                       @Value("${appointment.outbox.retention:24h}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sseSubscriptions = sseSubscriptions;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.relayExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        Long max = outboxEventRepository.findMaxPublishedOffset();
+        synchronized (this) {
+            lastOffset = max == null ? 0 : max;
+        }
+        wakeUp();
+    }
+
+    /** Demande une publication ; plusieurs réveils rapprochés n'en déclenchent qu'une */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            relayExecutor.execute(this::relayPending);
+        }
+    }
+
+    /** Rattrapage : événements dont le réveil après commit a été manqué */
+    @Scheduled(fixedDelayString = "${appointment.outbox.poll-interval-ms:1000}")
+    void poll() {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.outbox.cleanup-interval-ms:60000}")
+    void purge() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(Instant.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Outbox : {} événement(s) publié(s) purgé(s)", deleted);
+        }
+    }
+
+    /**
+     * Lecture long-poll des événements postérieurs à "after".
+     * Sans curseur, renvoie seulement la position courante ; à jour, attend au plus "wait" le prochain lot.
+     */
+    public DeferredResult<AppointmentEventBatch> poll(Long after, int limit, Duration wait) {
+        DeferredResult<AppointmentEventBatch> result = new DeferredResult<>(Math.max(1, wait.toMillis()));
+        AppointmentEventBatch ready = readAfter(after, limit);
+        if (ready != null || wait.isZero()) {
+            result.setResult(ready != null ? ready : emptyBatch());
+            return result;
+        }
+        Waiter waiter = new Waiter(result, limit);
+        synchronized (this) {
+            if (after == lastOffset) {
+                waiters.add(waiter);
+            } else {
+                ready = readAfter(after, limit);  // Lot publié entre-temps
+            }
+        }
+        if (ready != null) {
+            result.setResult(ready);
+            return result;
+        }
+        result.onTimeout(() -> result.setResult(emptyBatch()));
+        result.onCompletion(() -> {
+            synchronized (this) {
+                waiters.remove(waiter);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Abonnement SSE à partir de "after" (ou de la position courante).
+     * Le rattrapage est fait sur le thread du relais : aucun lot n'est envoyé en double ni sauté.
+     * @throws IllegalStateException si le nombre maximal de connexions SSE est atteint
+     */
+    public SseEmitter subscribe(Long after) {
+        SseSubscriber subscriber = sseSubscriptions.open();
+        relayExecutor.execute(() -> {
+            long cursor = after == null ? currentOffset() : after;
+            while (subscriber.isOpen() && cursor < currentOffset()) {
+                AppointmentEventBatch batch = readAfter(cursor, batchSize);
+                if (batch == null || !subscriber.send(toSse(batch))) {
+                    break;
+                }
+                cursor = batch.lastOffset();
+            }
+            if (cursor > currentOffset()) {
+                subscriber.send(toSse(new AppointmentEventBatch(currentOffset(), true, List.of())));
+            }
+            if (subscriber.isOpen()) {
+                subscribers.add(subscriber);
+                subscriber.onClose(() -> subscribers.remove(subscriber));
+            }
+        });
+        return subscriber.emitter();
+    }
+
+    /** Position du dernier événement publié */
+    public synchronized long currentOffset() {
+        return lastOffset;
+    }
+
+    private void relayPending() {
+        wakeUpPending.set(false);
+        try {
+            List<AppointmentStatusEvent> published;
+            do {
+                published = publishBatch();
+                if (!published.isEmpty()) {
+                    deliver(published);
+                }
+            } while (published.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox : publication interrompue, nouvel essai au prochain passage : {}", e.getMessage());
+        }
+    }
+
+    private List<AppointmentStatusEvent> publishBatch() {
+        long from = currentOffset();
+        return transactionTemplate.execute(status -> {
+            List<OutboxEvent> pending = outboxEventRepository.findByPublishedOffsetIsNullOrderByIdAsc(Limit.of(batchSize));
+            Instant now = Instant.now();
+            long offset = from;
+            List<AppointmentStatusEvent> events = new ArrayList<>(pending.size());
+            for (OutboxEvent event : pending) {
+                event.setPublishedOffset(++offset);
+                event.setPublishedAt(now);
+                events.add(AppointmentStatusEvent.of(event));
+            }
+            return events;
+        });
+    }
+
+    /** Lot validé : réveille les lectures long-poll en attente et pousse le lot aux abonnés SSE */
+    private void deliver(List<AppointmentStatusEvent> events) {
+        List<Waiter> ready;
+        synchronized (this) {
+            lastOffset = events.get(events.size() - 1).offset();
+            ready = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        log.debug("Outbox : {} événement(s) publié(s), position {}", events.size(), events.get(events.size() - 1).offset());
+        for (Waiter waiter : ready) {
+            waiter.result.setResult(batchOf(events, waiter.limit));
+        }
+        if (!subscribers.isEmpty()) {
+            Set<DataWithMediaType> message = toSse(batchOf(events, events.size()));
+            subscribers.forEach(subscriber -> subscriber.send(message));
+        }
+    }
+
+    /**
+     * Événements publiés après "after", lus en base ; null si le client est à jour.
+     * Curseur en avance (base réinitialisée) ou événements purgés : reset.
+     */
+    private AppointmentEventBatch readAfter(Long after, int limit) {
+        long last = currentOffset();
+        if (after == null) {
+            return new AppointmentEventBatch(last, false, List.of());
+        }
+        if (after > last || after < 0) {
+            return new AppointmentEventBatch(last, true, List.of());
+        }
+        if (after == last) {
+            return null;
+        }
+        List<AppointmentStatusEvent> events = outboxEventRepository
+                .findByPublishedOffsetGreaterThanOrderByPublishedOffsetAsc(after, Limit.of(limit)).stream()
+                .map(AppointmentStatusEvent::of)
+                .toList();
+        if (events.isEmpty() || events.get(0).offset() != after + 1) {
+            return new AppointmentEventBatch(last, true, List.of());
+        }
+        return new AppointmentEventBatch(events.get(events.size() - 1).offset(), false, events);
+    }
+
+    private AppointmentEventBatch emptyBatch() {
+        return new AppointmentEventBatch(currentOffset(), false, List.of());
+    }
+
+    private static AppointmentEventBatch batchOf(List<AppointmentStatusEvent> events, int limit) {
+        List<AppointmentStatusEvent> included = events.size() <= limit ? events : events.subList(0, limit);
+        return new AppointmentEventBatch(included.get(included.size() - 1).offset(), false, List.copyOf(included));
+    }
+
+    private Set<DataWithMediaType> toSse(AppointmentEventBatch batch) {
+        return sseSubscriptions.message(SSE_EVENT_NAME, String.valueOf(batch.lastOffset()), batch);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        relayExecutor.shutdownNow();
+    }
+
+    private record Waiter(DeferredResult<AppointmentEventBatch> result, int limit) {
+    }
+}
@@ -1,13 +1,29 @@
 package com.hospital.appointment.repository;
 
 import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.schedule.BookedSlot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository Appointment - accès à la base de données des rendez-vous.
+ * Rendez-vous courants uniquement : les rendez-vous clos anciens sont dans appointments_archive
+ * (ArchivedAppointmentRepository, AppointmentArchive).
  */
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -15,6 +31,57 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Tous les rendez-vous d'un patient donné
     List<Appointment> findByPatientId(Long patientId);
 
+    // Rendez-vous d'un patient à partir d'une date
+    List<Appointment> findByPatientIdAndDateHeureGreaterThanEqual(Long patientId, LocalDateTime depuis);
+
+    // Rendez-vous à partir d'une date (index date_heure)
+    List<Appointment> findByDateHeureGreaterThanEqual(LocalDateTime depuis);
+
     // Rendez-vous d'un patient avec un statut précis
     List<Appointment> findByPatientIdAndStatut(Long patientId, Appointment.StatutRendezVous statut);
+
+    // Pagination par curseur : rendez-vous d'ID strictement supérieur, triés par ID
+    List<Appointment> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Parcours complet en flux, lu par paquets de 500 lignes (à consommer dans une transaction)
+    @Query("select a from Appointment a order by a.id")
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Appointment> streamAllByOrderByIdAsc();
+
+    // Planning d'un médecin sur une période, par heure (index composite medecin_nom + date_heure)
+    @Query("select a from Appointment a where a.medecinNom = :medecin and a.dateHeure >= :debut and a.dateHeure < :fin " +
+           "order by a.dateHeure")
+    List<Appointment> findByMedecinBetween(@Param("medecin") String medecin,
+                                           @Param("debut") LocalDateTime debut,
+                                           @Param("fin") LocalDateTime fin);
+
+    // Créneaux occupés d'un médecin sur une période (index composite medecin_nom + date_heure)
+    @Query("select new com.hospital.appointment.schedule.BookedSlot(a.id, a.dateHeure) from Appointment a " +
+           "where a.medecinNom = :medecin and a.dateHeure >= :debut and a.dateHeure < :fin and a.statut <> :exclu")
+    List<BookedSlot> findActiveByMedecinBetween(@Param("medecin") String medecin,
+                                                @Param("debut") LocalDateTime debut,
+                                                @Param("fin") LocalDateTime fin,
+                                                @Param("exclu") Appointment.StatutRendezVous exclu);
+
+    // Archivage : rendez-vous clos antérieurs à la date limite, les plus anciens d'abord (index date_heure).
+    // Verrouillés jusqu'à la fin de la transaction : un changement de statut concurrent attend, puis échoue (version)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.id from Appointment a where a.statut in :statuts and a.dateHeure < :avant order by a.dateHeure")
+    List<Long> findArchivableIds(@Param("statuts") Collection<Appointment.StatutRendezVous> statuts,
+                                 @Param("avant") LocalDateTime avant,
+                                 Limit limit);
+
+    // Copie dans appointments_archive (une seule requête INSERT ... SELECT)
+    @Modifying
+    @Query("insert into ArchivedAppointment (id, patientId, dateHeure, motif, medecinNom, statut, notes, version, archivedAt) " +
+           "select a.id, a.patientId, a.dateHeure, a.motif, a.medecinNom, a.statut, a.notes, a.version, :archivedAt " +
+           "from Appointment a where a.id in :ids")
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+
+    @Modifying
+    @Query("delete from Appointment a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,58 @@
+package com.hospital.appointment.repository;
+
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.entity.ArchivedAppointment;
+import com.hospital.appointment.schedule.BookedSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Repository des rendez-vous archivés (appointments_archive), lu par AppointmentArchive.
+ * Mêmes recherches que AppointmentRepository, sur les rendez-vous clos anciens.
+ */
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    List<ArchivedAppointment> findByPatientId(Long patientId);
+
+    List<ArchivedAppointment> findByPatientIdAndDateHeureGreaterThanEqual(Long patientId, LocalDateTime depuis);
+
+    List<ArchivedAppointment> findByDateHeureGreaterThanEqual(LocalDateTime depuis);
+
+    List<ArchivedAppointment> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select a from ArchivedAppointment a order by a.id")
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ArchivedAppointment> streamAllByOrderByIdAsc();
+
+    @Query("select a from ArchivedAppointment a where a.medecinNom = :medecin and a.dateHeure >= :debut and a.dateHeure < :fin " +
+           "order by a.dateHeure")
+    List<ArchivedAppointment> findByMedecinBetween(@Param("medecin") String medecin,
+                                                   @Param("debut") LocalDateTime debut,
+                                                   @Param("fin") LocalDateTime fin);
+
+    @Query("select new com.hospital.appointment.schedule.BookedSlot(a.id, a.dateHeure) from ArchivedAppointment a " +
+           "where a.medecinNom = :medecin and a.dateHeure >= :debut and a.dateHeure < :fin and a.statut <> :exclu")
+    List<BookedSlot> findActiveByMedecinBetween(@Param("medecin") String medecin,
+                                                @Param("debut") LocalDateTime debut,
+                                                @Param("fin") LocalDateTime fin,
+                                                @Param("exclu") Appointment.StatutRendezVous exclu);
+
+    // Rendez-vous archivé le plus récent : borne des périodes couvertes par l'archive
+    @Query("select max(a.dateHeure) from ArchivedAppointment a")
+    Optional<LocalDateTime> findLatestDateHeure();
+}
@@ -0,0 +1,33 @@
+package com.hospital.appointment.repository;
+
+import com.hospital.appointment.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository de l'outbox des changements de statut (OutboxRelay).
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Événements validés pas encore publiés, dans l'ordre d'enregistrement
+    List<OutboxEvent> findByPublishedOffsetIsNullOrderByIdAsc(Limit limit);
+
+    // Lecture du flux après une position
+    List<OutboxEvent> findByPublishedOffsetGreaterThanOrderByPublishedOffsetAsc(Long offset, Limit limit);
+
+    @Query("select max(e.publishedOffset) from OutboxEvent e")
+    Long findMaxPublishedOffset();
+
+    // Purge des événements publiés depuis plus longtemps que la rétention
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,9 @@
+package com.hospital.appointment.schedule;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection légère d'un rendez-vous actif : seul ce qui sert à l'index des créneaux.
+ */
+public record BookedSlot(Long id, LocalDateTime dateHeure) {
+}
@@ -0,0 +1,12 @@
+package com.hospital.appointment.schedule;
+
+import com.hospital.appointment.entity.Appointment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Premier message du flux de planning : rendez-vous d'un médecin sur une journée, par heure.
+ */
+public record DoctorDaySchedule(String medecinNom, LocalDate jour, List<Appointment> rendezVous) {
+}
@@ -0,0 +1,134 @@
+package com.hospital.appointment.schedule;
+
+import com.hospital.appointment.archive.AppointmentArchive;
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.event.AppointmentChangedEvent;
+import com.hospital.appointment.repository.AppointmentRepository;
+import com.hospital.appointment.sse.SseSubscriber;
+import com.hospital.appointment.sse.SseSubscriptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Planning en direct d'un médecin pour une journée (SSE), pour les écrans d'accueil
+ * qui relisaient les rendez-vous toutes les quelques secondes.
+ *
+ * Un flux par couple (médecin, jour), créé au premier abonné et retiré au départ du dernier.
+ * À l'abonnement : message "planning" avec les rendez-vous du jour (index medecin_nom + date_heure),
+ * puis un message "rendez-vous" par création ou changement de statut validé (AppointmentChangedEvent).
+ * Un message contient l'état complet du rendez-vous : le client remplace sa ligne par ID.
+ *
+ * Le planning initial est lu sous le verrou du flux : un changement validé pendant la lecture
+ * est envoyé après le planning (éventuellement en double, sans effet), jamais perdu.
+ * La diffusion ne bloque pas : chaque abonné a un tampon borné, un abonné trop lent est déconnecté.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DoctorScheduleFeed {
+
+    private static final String SNAPSHOT_EVENT = "planning";
+    private static final String CHANGE_EVENT = "rendez-vous";
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentArchive appointmentArchive;  // Journées passées : rendez-vous clos archivés
+    private final SseSubscriptions sseSubscriptions;
+    private final ConcurrentHashMap<DoctorDay, Topic> topics = new ConcurrentHashMap<>();
+
+    /**
+     * Abonnement au planning d'un médecin pour une journée.
+     * @throws IllegalStateException si le nombre maximal de connexions SSE est atteint
+     */
+    public SseEmitter subscribe(String medecinNom, LocalDate jour) {
+        DoctorDay key = new DoctorDay(medecinNom, jour);
+        SseSubscriber subscriber = sseSubscriptions.open();
+        try {
+            while (true) {
+                Topic topic = topics.computeIfAbsent(key, k -> new Topic());
+                synchronized (topic) {
+                    if (topics.get(key) != topic) {
+                        continue;  // Flux retiré entre-temps (dernier abonné parti) : on recommence
+                    }
+                    List<Appointment> appointments = daySchedule(medecinNom, jour);
+                    subscriber.send(sseSubscriptions.message(SNAPSHOT_EVENT, null,
+                            new DoctorDaySchedule(medecinNom, jour, appointments)));
+                    topic.subscribers.add(subscriber);
+                    subscriber.onClose(() -> unsubscribe(key, topic, subscriber));
+                }
+                return subscriber.emitter();
+            }
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+    }
+
+    // Rendez-vous du jour par heure ; la table courante est lue avant l'archive (aucun rendez-vous archivé
+    // entre les deux lectures n'est manqué, un rendez-vous lu dans les deux n'est gardé qu'une fois)
+    private List<Appointment> daySchedule(String medecinNom, LocalDate jour) {
+        LocalDateTime debut = jour.atStartOfDay();
+        LocalDateTime fin = jour.plusDays(1).atStartOfDay();
+        List<Appointment> current = appointmentRepository.findByMedecinBetween(medecinNom, debut, fin);
+        List<Appointment> archived = appointmentArchive.findByMedecinBetween(medecinNom, debut, fin);
+        if (archived.isEmpty()) {
+            return current;
+        }
+        Map<Long, Appointment> byId = new LinkedHashMap<>();
+        archived.forEach(appointment -> byId.put(appointment.getId(), appointment));
+        current.forEach(appointment -> byId.put(appointment.getId(), appointment));
+        return byId.values().stream().sorted(Comparator.comparing(Appointment::getDateHeure)).toList();
+    }
+
+    /** Création ou changement de statut validé : diffusé aux abonnés du planning concerné */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        Appointment appointment = event.appointment();
+        if (appointment.getMedecinNom() == null) {
+            return;
+        }
+        Topic topic = topics.get(new DoctorDay(appointment.getMedecinNom(), appointment.getDateHeure().toLocalDate()));
+        if (topic == null) {
+            return;  // Personne ne suit ce planning
+        }
+        Set<DataWithMediaType> message = sseSubscriptions.message(CHANGE_EVENT, null, event);
+        synchronized (topic) {
+            topic.subscribers.forEach(subscriber -> subscriber.send(message));
+        }
+    }
+
+    /** Nombre de plannings suivis */
+    public int topicCount() {
+        return topics.size();
+    }
+
+    private void unsubscribe(DoctorDay key, Topic topic, SseSubscriber subscriber) {
+        synchronized (topic) {
+            topic.subscribers.remove(subscriber);
+            if (topic.subscribers.isEmpty()) {
+                topics.remove(key, topic);
+            }
+        }
+    }
+
+    private record DoctorDay(String medecinNom, LocalDate jour) {
+    }
+
+    // Abonnés d'un planning ; ajouts et diffusion sous synchronized(topic)
+    private static final class Topic {
+        private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    }
+}
@@ -0,0 +1,252 @@
+package com.hospital.appointment.schedule;
+
+import com.hospital.appointment.archive.AppointmentArchive;
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.exception.SlotConflictException;
+import com.hospital.appointment.repository.AppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Index en mémoire des créneaux occupés, par médecin et par jour.
+ *
+ * Chaque couple (médecin, jour) est chargé à la demande depuis la base via l'index
+ * composite (medecin_nom, date_heure), puis conservé dans une TreeMap triée par heure :
+ * la détection de chevauchement est en O(log n) et ne parcourt jamais l'historique.
+ *
+ * Un rendez-vous occupe un créneau de durée fixe (appointment.slot-duration).
+ * Les rendez-vous annulés ne bloquent aucun créneau.
+ *
+ * Les réservations sont faites dans la transaction de création : elles sont retirées
+ * de l'index si la transaction est annulée. L'index est propre à l'instance :
+ * il ne protège pas des doubles réservations entre plusieurs instances.
+ */
+@Component
+@Slf4j
+public class DoctorScheduleIndex {
+
+    // Valeur provisoire d'un créneau réservé dont la transaction n'est pas encore validée
+    private static final Long PENDING = -1L;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentArchive appointmentArchive;
+    private final Duration slotDuration;
+    private final int maxCachedDays;
+    private final Map<DayKey, DayBucket> buckets = new ConcurrentHashMap<>();
+
+    public DoctorScheduleIndex(AppointmentRepository appointmentRepository,
+                               AppointmentArchive appointmentArchive,
+                               @Value("${appointment.slot-duration:30m}") Duration slotDuration,
+                               @Value("${appointment.schedule-index.max-days:10000}") int maxCachedDays) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentArchive = appointmentArchive;
+        this.slotDuration = slotDuration;
+        this.maxCachedDays = maxCachedDays;
+    }
+
+    /**
+     * Réserve le créneau d'un rendez-vous, dans la transaction courante.
+     * @throws SlotConflictException si le créneau chevauche un autre rendez-vous du médecin
+     */
+    public void reserve(Appointment appointment) {
+        String medecin = appointment.getMedecinNom();
+        LocalDateTime start = appointment.getDateHeure();
+        if (medecin == null || start == null || appointment.getStatut() == Appointment.StatutRendezVous.ANNULE) {
+            return;
+        }
+
+        DayBucket own = lockedBuckets(medecin, start, bucketsInConflictRange -> {
+            for (DayBucket bucket : bucketsInConflictRange) {
+                if (bucket.overlaps(start, slotDuration)) {
+                    throw new SlotConflictException(medecin, start);
+                }
+            }
+            DayBucket target = bucketsInConflictRange.stream()
+                    .filter(bucket -> bucket.key.day().equals(start.toLocalDate()))
+                    .findFirst().orElseThrow();
+            target.slots.put(start, PENDING);
+            target.pending++;
+            return target;
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    synchronized (own) {
+                        own.pending--;
+                        if (status == STATUS_COMMITTED) {
+                            own.slots.replace(start, PENDING, appointment.getId());
+                        } else {
+                            own.slots.remove(start, PENDING);
+                        }
+                    }
+                }
+            });
+        } else {
+            synchronized (own) {
+                own.pending--;
+                own.slots.replace(start, PENDING, appointment.getId());
+            }
+        }
+    }
+
+    /**
+     * Libère le créneau d'un rendez-vous annulé, une fois la transaction validée.
+     */
+    public void release(Appointment appointment) {
+        String medecin = appointment.getMedecinNom();
+        LocalDateTime start = appointment.getDateHeure();
+        if (medecin == null || start == null) {
+            return;
+        }
+        Runnable removal = () -> {
+            DayBucket bucket = buckets.get(new DayKey(medecin, start.toLocalDate()));
+            if (bucket != null) {
+                synchronized (bucket) {
+                    bucket.slots.remove(start, appointment.getId());
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removal.run();
+                }
+            });
+        } else {
+            removal.run();
+        }
+    }
+
+    /**
+     * Créneaux libres d'un médecin entre debut et fin, sur la grille de slot-duration à partir de debut.
+     */
+    public List<LocalDateTime> findFreeSlots(String medecin, LocalDateTime debut, LocalDateTime fin) {
+        List<LocalDateTime> free = new ArrayList<>();
+        for (LocalDateTime candidate = debut; !candidate.plus(slotDuration).isAfter(fin); candidate = candidate.plus(slotDuration)) {
+            LocalDateTime slot = candidate;
+            boolean taken = lockedBuckets(medecin, slot, bucketsInRange ->
+                    bucketsInRange.stream().anyMatch(bucket -> bucket.overlaps(slot, slotDuration)));
+            if (!taken) {
+                free.add(slot);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Exécute l'action avec les verrous des jours pouvant contenir un rendez-vous en conflit
+     * avec "start" (au plus deux jours autour de minuit), pris dans l'ordre chronologique.
+     */
+    private <T> T lockedBuckets(String medecin, LocalDateTime start, Function<List<DayBucket>, T> action) {
+        while (true) {
+            LocalDate firstDay = start.minus(slotDuration).toLocalDate();
+            LocalDate lastDay = start.plus(slotDuration).toLocalDate();
+            List<DayBucket> range = new ArrayList<>();
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                range.add(bucket(new DayKey(medecin, day)));
+            }
+            T result = withLocks(range, 0, action);
+            if (result != null || range.stream().noneMatch(bucket -> bucket.evicted)) {
+                return result;
+            }
+            // Un jour a été évincé entre sa lecture et son verrouillage : on recommence
+        }
+    }
+
+    private <T> T withLocks(List<DayBucket> range, int index, Function<List<DayBucket>, T> action) {
+        if (index == range.size()) {
+            if (range.stream().anyMatch(bucket -> bucket.evicted)) {
+                return null;
+            }
+            range.forEach(this::loadIfNeeded);
+            return action.apply(range);
+        }
+        synchronized (range.get(index)) {
+            return withLocks(range, index + 1, action);
+        }
+    }
+
+    private DayBucket bucket(DayKey key) {
+        DayBucket bucket = buckets.computeIfAbsent(key, DayBucket::new);
+        bucket.lastAccess = System.nanoTime();
+        if (buckets.size() > maxCachedDays) {
+            evictOldest();
+        }
+        return bucket;
+    }
+
+    // Appelé sous le verrou du jour
+    private void loadIfNeeded(DayBucket bucket) {
+        if (bucket.loaded) {
+            return;
+        }
+        LocalDateTime dayStart = bucket.key.day().atStartOfDay();
+        appointmentRepository.findActiveByMedecinBetween(bucket.key.medecin(), dayStart, dayStart.plusDays(1),
+                        Appointment.StatutRendezVous.ANNULE)
+                .forEach(slot -> bucket.slots.put(slot.dateHeure(), slot.id()));
+        // Lue après la table courante : un rendez-vous archivé entre les deux lectures n'est pas manqué
+        appointmentArchive.findActiveByMedecinBetween(bucket.key.medecin(), dayStart, dayStart.plusDays(1))
+                .forEach(slot -> bucket.slots.put(slot.dateHeure(), slot.id()));
+        bucket.loaded = true;
+    }
+
+    private void evictOldest() {
+        int toEvict = buckets.size() - maxCachedDays * 9 / 10;
+        buckets.values().stream()
+                .sorted(Comparator.comparingLong(bucket -> bucket.lastAccess))
+                .limit(toEvict)
+                .forEach(bucket -> {
+                    synchronized (bucket) {
+                        // Un jour avec des réservations non validées doit rester en mémoire
+                        if (bucket.pending == 0 && !bucket.evicted) {
+                            bucket.evicted = true;
+                            buckets.remove(bucket.key, bucket);
+                        }
+                    }
+                });
+        log.debug("Index des créneaux : {} jour(s) en mémoire après éviction", buckets.size());
+    }
+
+    private record DayKey(String medecin, LocalDate day) {
+    }
+
+    /**
+     * Rendez-vous actifs d'un médecin pour un jour, triés par heure de début.
+     * Tous les champs sont protégés par synchronized(this), sauf lastAccess (indicatif).
+     */
+    private static final class DayBucket {
+        final DayKey key;
+        final NavigableMap<LocalDateTime, Long> slots = new TreeMap<>();
+        int pending;
+        boolean loaded;
+        boolean evicted;
+        volatile long lastAccess;
+
+        DayBucket(DayKey key) {
+            this.key = key;
+        }
+
+        /** Vrai si un rendez-vous commence dans l'intervalle ]start - durée, start + durée[ */
+        boolean overlaps(LocalDateTime start, Duration duration) {
+            return !slots.subMap(start.minus(duration), false, start.plus(duration), false).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.hospital.appointment.service;
+
+import com.hospital.appointment.cache.PatientExistenceCache;
+import com.hospital.appointment.dto.ImportResult;
+import com.hospital.appointment.dto.ImportResult.RowResult;
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.event.AppointmentChangedEvent;
+import com.hospital.appointment.exception.SlotConflictException;
+import com.hospital.appointment.repository.AppointmentRepository;
+import com.hospital.appointment.schedule.DoctorScheduleIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de rendez-vous (reprise de données depuis l'ancien système).
+ *
+ * 1. Validation de chaque ligne (contraintes de l'entité).
+ * 2. Vérification de tous les patients référencés en une passe (cache + appel batch).
+ * 3. Réservation du créneau de chaque rendez-vous (refus des doubles réservations).
+ * 4. Insertion par paquets : chaque paquet a sa propre transaction et ses INSERT
+ *    sont regroupés en JDBC batch. Si un paquet échoue, ses lignes sont rejouées
+ *    une par une pour n'écarter que les lignes fautives.
+ */
+@Service
+@Slf4j
+public class AppointmentImportService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final PatientExistenceCache patientExistenceCache;
+    private final DoctorScheduleIndex doctorScheduleIndex;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public AppointmentImportService(AppointmentRepository appointmentRepository,
+                                    PatientExistenceCache patientExistenceCache,
+                                    DoctorScheduleIndex doctorScheduleIndex,
+                                    Validator validator,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${appointment.import.chunk-size:500}") int chunkSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.patientExistenceCache = patientExistenceCache;
+        this.doctorScheduleIndex = doctorScheduleIndex;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResult importAppointments(List<Appointment> appointments) {
+        log.info("Import de {} rendez-vous", appointments.size());
+        RowResult[] results = new RowResult[appointments.size()];
+
+        // 1. Validation ligne par ligne
+        List<Integer> validRows = new ArrayList<>();
+        for (int i = 0; i < appointments.size(); i++) {
+            String error = validate(appointments.get(i));
+            if (error != null) {
+                results[i] = RowResult.rejected(i, error);
+            } else {
+                validRows.add(i);
+            }
+        }
+
+        // 2. Vérification groupée des patients
+        Set<Long> patientIds = new HashSet<>();
+        validRows.forEach(i -> patientIds.add(appointments.get(i).getPatientId()));
+        Map<Long, Boolean> existence = patientIds.isEmpty() ? Map.of() : patientExistenceCache.patientsExist(patientIds);
+
+        List<Integer> toInsert = new ArrayList<>();
+        for (Integer i : validRows) {
+            Appointment appointment = appointments.get(i);
+            Boolean exists = existence.get(appointment.getPatientId());
+            if (exists == null) {
+                results[i] = RowResult.rejected(i, "Patient Service indisponible : patient ID "
+                        + appointment.getPatientId() + " non vérifié");
+            } else if (!exists) {
+                results[i] = RowResult.rejected(i, "Le patient avec l'ID " + appointment.getPatientId() + " n'existe pas");
+            } else {
+                appointment.setId(null);  // Toujours une création
+                toInsert.add(i);
+            }
+        }
+
+        // 3-4. Réservation des créneaux et insertion par paquets transactionnels
+        for (int from = 0; from < toInsert.size(); from += chunkSize) {
+            insertChunk(appointments, toInsert.subList(from, Math.min(from + chunkSize, toInsert.size())), results);
+        }
+
+        int created = (int) Arrays.stream(results).filter(r -> r.status() == ImportResult.RowStatus.CREATED).count();
+        log.info("Import terminé : {} créé(s), {} rejeté(s)", created, results.length - created);
+        return new ImportResult(results.length, created, results.length - created, Arrays.asList(results));
+    }
+
+    private void insertChunk(List<Appointment> appointments, List<Integer> rows, RowResult[] results) {
+        Map<Integer, String> conflicts = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                conflicts.clear();
+                List<Appointment> toSave = new ArrayList<>();
+                for (Integer i : rows) {
+                    try {
+                        doctorScheduleIndex.reserve(appointments.get(i));
+                        toSave.add(appointments.get(i));
+                    } catch (SlotConflictException e) {
+                        conflicts.put(i, e.getMessage());
+                    }
+                }
+                appointmentRepository.saveAll(toSave);
+                appointmentRepository.flush();
+                toSave.forEach(this::publishCreated);
+            });
+            rows.forEach(i -> results[i] = conflicts.containsKey(i)
+                    ? RowResult.rejected(i, conflicts.get(i))
+                    : RowResult.created(i, appointments.get(i).getId()));
+        } catch (RuntimeException chunkError) {
+            log.warn("Échec d'un paquet de {} rendez-vous, reprise ligne par ligne : {}", rows.size(), chunkError.getMessage());
+            for (Integer i : rows) {
+                Appointment appointment = appointments.get(i);
+                // ID et version attribués par la tentative annulée : sans eux, save() persiste à nouveau
+                // cette instance (isNew) au lieu de fusionner une copie restée sans ID
+                appointment.setId(null);
+                appointment.setVersion(null);
+                try {
+                    Appointment saved = transactionTemplate.execute(status -> {
+                        doctorScheduleIndex.reserve(appointment);
+                        Appointment created = appointmentRepository.saveAndFlush(appointment);
+                        publishCreated(created);
+                        return created;
+                    });
+                    results[i] = RowResult.created(i, saved.getId());
+                } catch (RuntimeException rowError) {
+                    results[i] = RowResult.rejected(i, rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    // Publié dans la transaction du paquet : rien n'est diffusé si elle est annulée
+    private void publishCreated(Appointment appointment) {
+        eventPublisher.publishEvent(new AppointmentChangedEvent(AppointmentChangedEvent.Type.CREATED, appointment));
+    }
+
+    private String validate(Appointment appointment) {
+        if (appointment == null) {
+            return "Ligne vide";
+        }
+        Set<ConstraintViolation<Appointment>> violations = validator.validate(appointment);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+}
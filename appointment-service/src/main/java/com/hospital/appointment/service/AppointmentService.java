@@ -1,19 +1,38 @@
 package com.hospital.appointment.service;
 
-import com.hospital.appointment.client.PatientServiceClient;
+import com.hospital.appointment.archive.AppointmentArchive;
+import com.hospital.appointment.cache.PatientExistenceCache;
 import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.event.AppointmentChangedEvent;
+import com.hospital.appointment.exception.AppointmentArchivedException;
 import com.hospital.appointment.exception.AppointmentNotFoundException;
+import com.hospital.appointment.exception.SlotConflictException;
+import com.hospital.appointment.outbox.AppointmentOutbox;
 import com.hospital.appointment.repository.AppointmentRepository;
+import com.hospital.appointment.schedule.DoctorScheduleIndex;
+import com.hospital.common.client.PatientServiceUnavailableException;
+import com.hospital.common.web.CursorPage;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service Appointment - logique métier des rendez-vous.
@@ -22,6 +41,10 @@ import java.util.Map;
  * Les annotations Resilience4j gèrent la résilience :
  * - @CircuitBreaker : ouvre le circuit après trop d'échecs
  * - @Retry : réessaie automatiquement en cas d'échec temporaire
+ * - @Bulkhead : borne le nombre d'appels simultanés en attente du Patient Service
+ *
+ * Les lectures couvrent les rendez-vous courants et, si la période demandée le nécessite,
+ * les rendez-vous clos archivés (AppointmentArchive). Seuls les rendez-vous courants sont modifiables.
  */
 @Service
 @RequiredArgsConstructor
@@ -29,71 +52,131 @@ import java.util.Map;
 public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
-    private final PatientServiceClient patientServiceClient;  // Client Feign
+    private final PatientExistenceCache patientExistenceCache;  // Cache local devant le client Feign
+    private final EntityManager entityManager;
+    private final DoctorScheduleIndex doctorScheduleIndex;  // Créneaux occupés par médecin
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentOutbox appointmentOutbox;  // Changements de statut publiés (GET /api/appointments/events)
+    private final ApplicationEventPublisher eventPublisher;  // Alimente le planning en direct des médecins
+    private final AppointmentArchive appointmentArchive;  // Rendez-vous clos anciens
 
     /**
-     * Récupère tous les rendez-vous d'un patient.
+     * Récupère les rendez-vous d'un patient à partir de "depuis" (null : tout l'historique).
+     * Archivés d'abord (les plus anciens), puis courants.
      */
-    public List<Appointment> getAppointmentsByPatientId(Long patientId) {
-        log.info("Récupération des rendez-vous pour le patient ID: {}", patientId);
-        return appointmentRepository.findByPatientId(patientId);
+    @Transactional(readOnly = true)
+    public List<Appointment> getAppointmentsByPatientId(Long patientId, LocalDateTime depuis) {
+        log.debug("Récupération des rendez-vous pour le patient ID: {}", patientId);
+        List<Appointment> current = depuis == null
+                ? appointmentRepository.findByPatientId(patientId)
+                : appointmentRepository.findByPatientIdAndDateHeureGreaterThanEqual(patientId, depuis);
+        return withArchived(current, appointmentArchive.findByPatientId(patientId, depuis));
     }
 
     /**
-     * Récupère un rendez-vous par son ID.
+     * Récupère un rendez-vous par son ID, courant ou archivé.
      */
     public Appointment getAppointmentById(Long id) {
         return appointmentRepository.findById(id)
+                .or(() -> appointmentArchive.findById(id))
                 .orElseThrow(() -> new AppointmentNotFoundException(id));
     }
 
     /**
-     * Crée un nouveau rendez-vous après vérification de l'existence du patient.
+     * Crée un nouveau rendez-vous après vérification de l'existence du patient
+     * et de la disponibilité du médecin sur le créneau.
      *
      * @CircuitBreaker : si le Patient Service échoue trop souvent, le circuit s'ouvre
      *   et la méthode fallback est appelée directement (sans attendre).
      * @Retry : en cas d'échec ponctuel, réessaie 3 fois avant de déclencher le fallback.
+     * @Bulkhead : limite le nombre de créations simultanées en attente du Patient Service.
+     *
+     * La transaction (et donc la connexion JDBC) n'est ouverte qu'une fois le patient vérifié :
+     * un Patient Service lent n'épuise pas le pool de connexions.
      */
-    @Transactional
     @CircuitBreaker(name = "patientService", fallbackMethod = "createAppointmentFallback")
     @Retry(name = "patientService")
+    @Bulkhead(name = "patientService")
     public Appointment createAppointment(Appointment appointment) {
-        log.info("Tentative de création d'un rendez-vous pour le patient ID: {}", appointment.getPatientId());
+        log.debug("Tentative de création d'un rendez-vous pour le patient ID: {}", appointment.getPatientId());
 
-        // Appel au Patient Service pour vérifier l'existence du patient
-        Map<String, Boolean> response = patientServiceClient.checkPatientExists(appointment.getPatientId());
-        boolean patientExists = response.getOrDefault("exists", false);
+        // Vérification de l'existence du patient (cache local, sinon appel au Patient Service)
+        boolean patientExists = patientExistenceCache.patientExists(appointment.getPatientId());
 
         if (!patientExists) {
             throw new IllegalArgumentException(
-                "Le patient avec l'ID " + appointment.getPatientId() + " n'existe pas ou est inaccessible.");
+                "Le patient avec l'ID " + appointment.getPatientId() + " n'existe pas.");
         }
 
-        Appointment saved = appointmentRepository.save(appointment);
+        return saveNewAppointment(appointment);
+    }
+
+    /**
+     * Enregistre un rendez-vous dont le patient a déjà été vérifié
+     * (chemin bloquant ci-dessus et chemin réactif de ReactiveAppointmentService).
+     */
+    public Appointment saveNewAppointment(Appointment appointment) {
+        Appointment saved = transactionTemplate.execute(status -> {
+            // Refuse les doubles réservations du médecin (libéré automatiquement si la transaction échoue)
+            doctorScheduleIndex.reserve(appointment);
+            Appointment created = appointmentRepository.save(appointment);
+            eventPublisher.publishEvent(new AppointmentChangedEvent(AppointmentChangedEvent.Type.CREATED, created));
+            return created;
+        });
         log.info("Rendez-vous créé avec succès, ID: {}", saved.getId());
         return saved;
     }
 
     /**
      * Méthode Fallback pour createAppointment.
-     * Appelée automatiquement quand le Circuit Breaker est ouvert.
+     * Appelée quand le Circuit Breaker est ouvert ou que le Patient Service n'a pas pu répondre
+     * (PatientServiceUnavailableException, comptée comme un échec par le circuit).
      * La signature doit être identique + un paramètre Throwable à la fin.
      */
     public Appointment createAppointmentFallback(Appointment appointment, Throwable ex) {
-        log.error("[CIRCUIT BREAKER OUVERT] Impossible de créer le rendez-vous. Patient Service indisponible. Erreur: {}", ex.getMessage());
-        throw new RuntimeException(
+        log.error("[CIRCUIT BREAKER] Impossible de créer le rendez-vous. Patient Service indisponible. Erreur: {}", ex.getMessage());
+        throw new PatientServiceUnavailableException(
             "Service temporairement indisponible. Impossible de vérifier l'existence du patient. " +
             "Veuillez réessayer dans quelques instants.");
     }
 
+    /**
+     * Erreurs métier (patient inexistant, créneau déjà pris) : elles ne traduisent pas
+     * une panne du Patient Service et sont renvoyées telles quelles à l'appelant.
+     */
+    public Appointment createAppointmentFallback(Appointment appointment, IllegalArgumentException ex) {
+        throw ex;
+    }
+
+    public Appointment createAppointmentFallback(Appointment appointment, SlotConflictException ex) {
+        throw ex;
+    }
+
     /**
      * Met à jour le statut d'un rendez-vous.
+     * Le changement est consigné dans l'outbox dans la même transaction.
      */
     @Transactional
     public Appointment updateStatut(Long id, Appointment.StatutRendezVous newStatut) {
-        Appointment appointment = getAppointmentById(id);
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> appointmentArchive.findById(id).isPresent()
+                        ? new AppointmentArchivedException(id)
+                        : new AppointmentNotFoundException(id));
+        Appointment.StatutRendezVous oldStatut = appointment.getStatut();
         appointment.setStatut(newStatut);
-        return appointmentRepository.save(appointment);
+
+        // Un rendez-vous annulé libère son créneau ; le réactiver le réserve à nouveau
+        if (newStatut == Appointment.StatutRendezVous.ANNULE && oldStatut != Appointment.StatutRendezVous.ANNULE) {
+            doctorScheduleIndex.release(appointment);
+        } else if (oldStatut == Appointment.StatutRendezVous.ANNULE && newStatut != Appointment.StatutRendezVous.ANNULE) {
+            doctorScheduleIndex.reserve(appointment);
+        }
+        Appointment saved = appointmentRepository.save(appointment);
+        if (newStatut != oldStatut) {
+            appointmentOutbox.recordStatusChange(saved, oldStatut);
+            eventPublisher.publishEvent(new AppointmentChangedEvent(AppointmentChangedEvent.Type.STATUS_CHANGED, saved));
+        }
+        return saved;
     }
 
     /**
@@ -105,9 +188,70 @@ public class AppointmentService {
     }
 
     /**
-     * Récupère tous les rendez-vous.
+     * Créneaux libres d'un médecin sur une période.
+     * Sans transaction en lecture seule : les jours chargés restent dans DoctorScheduleIndex
+     * et servent à refuser les doubles réservations, ils sont donc lus sur la base principale.
      */
-    public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+    public List<LocalDateTime> getFreeSlots(String medecinNom, LocalDateTime debut, LocalDateTime fin) {
+        return doctorScheduleIndex.findFreeSlots(medecinNom, debut, fin);
+    }
+
+    /**
+     * Récupère tous les rendez-vous à partir de "depuis" (null : tous, archivés compris).
+     */
+    public List<Appointment> getAllAppointments(LocalDateTime depuis) {
+        List<Appointment> current = depuis == null
+                ? appointmentRepository.findAll()
+                : appointmentRepository.findByDateHeureGreaterThanEqual(depuis);
+        return withArchived(current, appointmentArchive.findAll(depuis));
+    }
+
+    /**
+     * Récupère une page de rendez-vous triés par ID, à partir d'un curseur opaque.
+     * Les identifiants sont conservés à l'archivage : la page fusionne les deux tables par ID.
+     */
+    public CursorPage<Appointment> getAppointmentsPage(String cursor, int size) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        List<Appointment> appointments = withArchived(
+                appointmentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size)),
+                appointmentArchive.findPageAfter(afterId, size)).stream()
+                .sorted(Comparator.comparing(Appointment::getId))
+                .limit(size)
+                .toList();
+        String nextCursor = appointments.size() < size ? null
+                : CursorPage.encodeCursor(appointments.get(appointments.size() - 1).getId());
+        return new CursorPage<>(appointments, nextCursor);
+    }
+
+    /**
+     * Parcourt tous les rendez-vous sans les charger en mémoire d'un coup :
+     * rendez-vous courants puis archivés, chacun des deux triés par ID
+     * (un rendez-vous archivé pendant le parcours peut apparaître deux fois).
+     */
+    @Transactional(readOnly = true)
+    public void streamAllAppointments(Consumer<Appointment> consumer) {
+        try (Stream<Appointment> appointments = appointmentRepository.streamAllByOrderByIdAsc()) {
+            appointments.forEach(appointment -> {
+                consumer.accept(appointment);
+                entityManager.detach(appointment);
+            });
+        }
+        appointmentArchive.streamAll(consumer);
+    }
+
+    /**
+     * Rendez-vous archivés (les plus anciens) suivis des rendez-vous courants.
+     * La table courante est lue en premier : un rendez-vous archivé entre les deux lectures
+     * apparaît dans les deux listes, il n'est gardé qu'une fois.
+     */
+    private static List<Appointment> withArchived(List<Appointment> current, List<Appointment> archived) {
+        if (archived.isEmpty()) {
+            return current;
+        }
+        Set<Long> currentIds = current.stream().map(Appointment::getId).collect(Collectors.toSet());
+        List<Appointment> appointments = new ArrayList<>(archived.size() + current.size());
+        archived.stream().filter(appointment -> !currentIds.contains(appointment.getId())).forEach(appointments::add);
+        appointments.addAll(current);
+        return appointments;
     }
 }
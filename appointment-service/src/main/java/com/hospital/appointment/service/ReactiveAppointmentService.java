@@ -0,0 +1,133 @@
+package com.hospital.appointment.service;
+
+import com.hospital.appointment.cache.PatientExistenceCache;
+import com.hospital.appointment.client.ReactivePatientClient;
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.exception.SlotConflictException;
+import com.hospital.common.client.PatientServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Chemin non bloquant de création et de lecture des rendez-vous (appointment.reactive.enabled=true).
+ *
+ * - Vérification du patient : cache local, sinon WebClient (aucun thread n'attend la réponse).
+ * - Persistance : JPA reste bloquant ; les accès base sont exécutés sur un scheduler borné,
+ *   dimensionné comme le pool de connexions, afin que seuls ces threads attendent la base.
+ *   La requête HTTP d'origine suit le traitement dans le contexte Reactor et est rattachée au thread JDBC
+ *   (RequestContextHolder) : lecture de ses propres écritures avec réplicas (ReadYourWritesFilter).
+ * - Résilience : mêmes instances Resilience4j "patientService" que AppointmentService
+ *   (état du circuit partagé entre les deux chemins), mêmes réponses en cas d'échec.
+ *
+ * Des milliers de créations peuvent ainsi être en attente du Patient Service
+ * sans occuper de thread de requête.
+ */
+@Service
+@ConditionalOnProperty(name = "appointment.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveAppointmentService {
+
+    private final AppointmentService appointmentService;
+    private final PatientExistenceCache patientExistenceCache;
+    private final ReactivePatientClient patientClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveAppointmentService(AppointmentService appointmentService,
+                                      PatientExistenceCache patientExistenceCache,
+                                      ReactivePatientClient patientClient,
+                                      CircuitBreakerRegistry circuitBreakerRegistry,
+                                      RetryRegistry retryRegistry,
+                                      @Value("${appointment.reactive.jdbc-threads:10}") int jdbcThreads,
+                                      @Value("${appointment.reactive.max-queued:10000}") int maxQueued) {
+        this.appointmentService = appointmentService;
+        this.patientExistenceCache = patientExistenceCache;
+        this.patientClient = patientClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("patientService");
+        this.retry = retryRegistry.retry("patientService");
+        this.jdbcScheduler = Schedulers.newBoundedElastic(jdbcThreads, maxQueued, "appointment-jdbc");
+    }
+
+    /**
+     * Crée un rendez-vous : mêmes règles que AppointmentService.createAppointment
+     * (IllegalArgumentException si le patient n'existe pas, SlotConflictException si le créneau est pris,
+     * PatientServiceUnavailableException pour toute autre erreur, réponse de fallback comprise).
+     */
+    public Mono<Appointment> createAppointment(Appointment appointment) {
+        Long patientId = appointment.getPatientId();
+
+        return Mono.defer(() -> {
+                    log.debug("Tentative de création d'un rendez-vous pour le patient ID: {}", patientId);
+                    return patientExistenceCache.patientExists(patientId, patientClient.checkPatientExists(patientId));
+                })
+                .flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new IllegalArgumentException(
+                                "Le patient avec l'ID " + patientId + " n'existe pas."));
+                    }
+                    return onJdbcScheduler(() -> appointmentService.saveNewAppointment(appointment));
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorMap(ex -> !(ex instanceof IllegalArgumentException || ex instanceof SlotConflictException), ex -> {
+                    log.error("[CIRCUIT BREAKER] Impossible de créer le rendez-vous. Patient Service indisponible. Erreur: {}", ex.getMessage());
+                    return new PatientServiceUnavailableException(
+                            "Service temporairement indisponible. Impossible de vérifier l'existence du patient. " +
+                            "Veuillez réessayer dans quelques instants.");
+                })
+                .contextWrite(ReactiveAppointmentService::withCurrentRequest);
+    }
+
+    /** Récupère un rendez-vous par son ID (AppointmentNotFoundException s'il n'existe pas). */
+    public Mono<Appointment> getAppointmentById(Long id) {
+        return onJdbcScheduler(() -> appointmentService.getAppointmentById(id))
+                .contextWrite(ReactiveAppointmentService::withCurrentRequest);
+    }
+
+    // Accès base sur le scheduler JDBC, avec la requête d'origine du contexte Reactor
+    private <T> Mono<T> onJdbcScheduler(Callable<T> call) {
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+                    HttpServletRequest request = context.getOrDefault(HttpServletRequest.class, null);
+                    RequestContextHolder.setRequestAttributes(request == null ? null : new ServletRequestAttributes(request));
+                    try {
+                        return call.call();
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                    }
+                }))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    // Appelé à la souscription, sur le thread de la requête HTTP (requête traitée ensuite en asynchrone)
+    private static Context withCurrentRequest(Context context) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet
+                ? context.put(HttpServletRequest.class, servlet.getRequest())
+                : context;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jdbcScheduler.dispose();
+    }
+}
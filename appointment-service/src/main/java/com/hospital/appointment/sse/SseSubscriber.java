@@ -0,0 +1,118 @@
+package com.hospital.appointment.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Abonné SSE avec un tampon borné.
+ *
+ * send() ne bloque jamais l'appelant (relais, publication des changements) : le message est mis
+ * dans le tampon, qu'un thread d'envoi vide ensuite. Un abonné trop lent dont le tampon est plein
+ * est déconnecté ; il se reconnecte et reprend à partir du dernier message reçu.
+ */
+public class SseSubscriber {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<DataWithMediaType>> buffer;
+    private final Executor sender;
+    private final SseSubscriptions subscriptions;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Runnable onClose = () -> { };
+
+    SseSubscriber(SseEmitter emitter, int bufferSize, Executor sender, SseSubscriptions subscriptions) {
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.sender = sender;
+        this.subscriptions = subscriptions;
+    }
+
+    public SseEmitter emitter() {
+        return emitter;
+    }
+
+    /** Action exécutée une seule fois à la fermeture (désinscription du flux) */
+    public void onClose(Runnable onClose) {
+        this.onClose = onClose;
+        if (closed.get()) {
+            onClose.run();
+        }
+    }
+
+    public boolean isOpen() {
+        return !closed.get();
+    }
+
+    /** Met un message propre à cet abonné en attente d'envoi */
+    public boolean send(SseEmitter.SseEventBuilder event) {
+        return send(event.build());
+    }
+
+    /**
+     * Met un message en attente d'envoi ; un même message (SseSubscriptions.message)
+     * peut être envoyé à tous les abonnés d'un flux.
+     * @return false si l'abonné est fermé ou vient d'être déconnecté (tampon plein)
+     */
+    public boolean send(Set<DataWithMediaType> message) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!buffer.offer(message)) {
+            subscriptions.recordDropped();
+            close();
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /** Ferme la connexion (abonné trop lent, arrêt du flux) */
+    public void close() {
+        if (markClosed()) {
+            emitter.complete();
+        }
+    }
+
+    /** Connexion terminée côté client ou serveur (fin, timeout, erreur) */
+    boolean markClosed() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        buffer.clear();
+        subscriptions.unregister(this);
+        onClose.run();
+        return true;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            sender.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Set<DataWithMediaType> message;
+            while (!closed.get() && (message = buffer.poll()) != null) {
+                emitter.send(message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client parti : la connexion est fermée, les messages en attente sont abandonnés
+            if (markClosed()) {
+                emitter.completeWithError(e);
+            }
+        } finally {
+            draining.set(false);
+        }
+        if (!closed.get() && !buffer.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
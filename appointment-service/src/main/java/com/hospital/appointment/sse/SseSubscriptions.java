@@ -0,0 +1,127 @@
+package com.hospital.appointment.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ouverture et suivi des connexions SSE (SseSubscriber).
+ *
+ * Les envois sont faits par un petit pool de threads partagé par tous les abonnés :
+ * des milliers de connexions ouvertes n'immobilisent pas un thread chacune.
+ * Un client qui ne lit plus bloque un thread d'envoi au plus le délai d'écriture de Tomcat ;
+ * les autres abonnés sont servis par les threads restants.
+ * Un message diffusé à plusieurs abonnés est sérialisé une seule fois (message()).
+ * Au-delà de appointment.sse.max-subscribers connexions, les nouvelles sont refusées.
+ * Un commentaire est envoyé périodiquement à chaque abonné : les proxys ne coupent pas
+ * les connexions inactives et les clients disparus sont détectés.
+ */
+@Component
+@Slf4j
+public class SseSubscriptions {
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final ExecutorService sender;
+    private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder dropped = new LongAdder();
+
+    public SseSubscriptions(ObjectMapper objectMapper,
+                            @Value("${appointment.sse.buffer-size:256}") int bufferSize,
+                            @Value("${appointment.sse.max-subscribers:10000}") int maxSubscribers,
+                            @Value("${appointment.sse.timeout:30m}") Duration timeout,
+                            @Value("${appointment.sse.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger counter = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Nouvelle connexion SSE ; le contrôleur renvoie subscriber.emitter().
+     * @throws IllegalStateException si le nombre maximal de connexions est atteint
+     */
+    public SseSubscriber open() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Trop de connexions SSE ouvertes, veuillez réessayer plus tard");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        SseSubscriber subscriber = new SseSubscriber(emitter, bufferSize, sender, this);
+        emitter.onCompletion(subscriber::markClosed);
+        emitter.onTimeout(subscriber::markClosed);
+        emitter.onError(error -> subscriber.markClosed());
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    /** Message SSE prêt à être envoyé à un ou plusieurs abonnés ; data est sérialisé en JSON une seule fois */
+    public Set<DataWithMediaType> message(String name, String id, Object data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation d'un message SSE impossible", e);
+        }
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name);
+        if (id != null) {
+            event.id(id);
+        }
+        return event.data(json, MediaType.APPLICATION_JSON).build();
+    }
+
+    /** Nombre de connexions ouvertes */
+    public int openCount() {
+        return subscribers.size();
+    }
+
+    /** Abonnés déconnectés car trop lents */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    void unregister(SseSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    void recordDropped() {
+        dropped.increment();
+        log.debug("Abonné SSE trop lent déconnecté (tampon de {} messages plein)", bufferSize);
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.sse.heartbeat-interval-ms:15000}")
+    void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        for (SseSubscriber subscriber : subscribers) {
+            subscriber.send(ping);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(SseSubscriber::close);
+        sender.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+-- Schéma initial de l'Appointment Service (profil persistent)
+-- Doit rester conforme aux entités JPA : Hibernate le vérifie au démarrage (ddl-auto: validate)
+
+-- Identifiants réservés par blocs de 50 (allocationSize des entités)
+create sequence appointments_seq start with 1 increment by 50;
+create sequence appointment_outbox_seq start with 1 increment by 50;
+
+create table appointments (
+    id          bigint       not null,
+    patient_id  bigint       not null,
+    date_heure  timestamp(6) not null,
+    motif       varchar(255) not null,
+    statut      varchar(255) not null check (statut in ('PLANIFIE', 'CONFIRME', 'ANNULE', 'TERMINE')),
+    medecin_nom varchar(255),
+    notes       varchar(255),
+    version     bigint,
+    primary key (id)
+);
+
+-- Rendez-vous d'un patient
+create index idx_appointments_patient on appointments (patient_id);
+-- Recherche des créneaux d'un médecin sur une période
+create index idx_appointments_medecin_date on appointments (medecin_nom, date_heure);
+
+create table appointment_outbox (
+    id               bigint                      not null,
+    appointment_id   bigint                      not null,
+    patient_id       bigint                      not null,
+    medecin_nom      varchar(255),
+    date_heure       timestamp(6)                not null,
+    ancien_statut    varchar(255) check (ancien_statut in ('PLANIFIE', 'CONFIRME', 'ANNULE', 'TERMINE')),
+    nouveau_statut   varchar(255)                not null check (nouveau_statut in ('PLANIFIE', 'CONFIRME', 'ANNULE', 'TERMINE')),
+    created_at       timestamp(6) with time zone not null,
+    published_at     timestamp(6) with time zone,
+    published_offset bigint,
+    primary key (id)
+);
+
+-- Lecture du flux à partir d'une position, et recherche des événements non publiés
+create unique index idx_outbox_published_offset on appointment_outbox (published_offset);
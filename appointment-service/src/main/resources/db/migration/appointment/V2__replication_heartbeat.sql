@@ -0,0 +1,10 @@
+-- Battement de réplication : horodatage écrit chaque seconde sur la base principale par
+-- ReplicaLagMonitor, puis relu sur chaque réplica pour mesurer son retard (profil replicas)
+
+create table replication_heartbeat (
+    id      int                         not null,
+    beat_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+insert into replication_heartbeat (id, beat_at) values (1, current_timestamp);
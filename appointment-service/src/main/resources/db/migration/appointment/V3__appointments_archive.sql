@@ -0,0 +1,25 @@
+-- Archive des rendez-vous clos (AppointmentArchive) : rendez-vous TERMINE ou ANNULE anciens,
+-- déplacés hors de la table appointments avec leur identifiant et leur version
+
+create table appointments_archive (
+    id          bigint                      not null,
+    patient_id  bigint                      not null,
+    date_heure  timestamp(6)                not null,
+    motif       varchar(255)                not null,
+    statut      varchar(255)                not null check (statut in ('PLANIFIE', 'CONFIRME', 'ANNULE', 'TERMINE')),
+    medecin_nom varchar(255),
+    notes       varchar(255),
+    version     bigint,
+    archived_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+-- Historique d'un patient
+create index idx_appointments_archive_patient on appointments_archive (patient_id);
+-- Planning d'un médecin sur une période passée
+create index idx_appointments_archive_medecin_date on appointments_archive (medecin_nom, date_heure);
+-- Recherche par période
+create index idx_appointments_archive_date on appointments_archive (date_heure);
+
+-- Table courante : recherche par période et sélection des rendez-vous à archiver
+create index idx_appointments_date on appointments (date_heure);
@@ -0,0 +1,50 @@
+package com.hospital.appointment.controller;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Patient Service injoignable : le fallback du client Feign répond "fallback": true.
+ * La création de rendez-vous doit répondre 503 (indisponible), pas 400 (patient inexistant),
+ * et l'échec doit être compté par le circuit breaker patientService.
+ */
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        // Aucun serveur sur ce port : connexion refusée, fallback du client Feign
+        "spring.cloud.discovery.client.simple.instances.patient-service[0].uri=http://localhost:1",
+        "resilience4j.retry.instances.patientService.wait-duration=10ms"
+})
+@AutoConfigureMockMvc
+class AppointmentCreationPatientServiceDownTest {
+
+    private static final String APPOINTMENT = """
+            {"patientId": 1, "dateHeure": "2030-01-07T10:00:00", "motif": "Consultation", "medecinNom": "Dr Martin"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Test
+    void creationIsUnavailableWhenThePatientCannotBeVerified() throws Exception {
+        mockMvc.perform(post("/api/appointments").contentType(MediaType.APPLICATION_JSON).content(APPOINTMENT))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Service temporairement indisponible")));
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("patientService").getMetrics().getNumberOfFailedCalls())
+                .isPositive();
+    }
+}
@@ -0,0 +1,105 @@
+package com.hospital.appointment.service;
+
+import com.hospital.appointment.cache.PatientExistenceCache;
+import com.hospital.appointment.dto.ImportResult;
+import com.hospital.appointment.dto.ImportResult.RowStatus;
+import com.hospital.appointment.entity.Appointment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Import en masse : une ligne refusée par la base fait échouer son paquet,
+ * qui est rejoué ligne par ligne. Les autres lignes doivent obtenir un vrai ID
+ * et un créneau libérable par l'annulation.
+ */
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false"
+})
+class AppointmentImportServiceTest {
+
+    private static final String MEDECIN = "Dr Import";
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2031, 3, 3, 9, 0);
+
+    @Autowired
+    private AppointmentImportService appointmentImportService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @MockBean
+    private PatientExistenceCache patientExistenceCache;
+
+    @Test
+    void rowsOfAFailedChunkAreReplayedWithRealIdsAndReleasableSlots() {
+        given(patientExistenceCache.patientsExist(anyCollection())).willAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> true));
+        });
+        // Valide pour l'entité, refusée par la base (colonne de 255 caractères) : tout le paquet échoue
+        Appointment tooLong = appointment(2, FIRST_SLOT.plusHours(1));
+        tooLong.setNotes("x".repeat(300));
+        List<Appointment> rows = List.of(
+                appointment(1, FIRST_SLOT),
+                tooLong,
+                appointment(3, FIRST_SLOT.plusHours(2)));
+
+        ImportResult result = appointmentImportService.importAppointments(rows);
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.results().get(1).status()).isEqualTo(RowStatus.REJECTED);
+        for (int row : new int[]{0, 2}) {
+            ImportResult.RowResult created = result.results().get(row);
+            assertThat(created.status()).isEqualTo(RowStatus.CREATED);
+            assertThat(created.id()).isNotNull();
+            assertThat(appointmentService.getAppointmentById(created.id()).getDateHeure()).isEqualTo(rows.get(row).getDateHeure());
+        }
+        // Le créneau de la ligne refusée n'est pas resté réservé
+        assertThat(freeSlot(FIRST_SLOT.plusHours(1))).isTrue();
+
+        // Annuler un rendez-vous importé libère son créneau
+        assertThat(freeSlot(FIRST_SLOT)).isFalse();
+        appointmentService.cancelAppointment(result.results().get(0).id());
+        assertThat(freeSlot(FIRST_SLOT)).isTrue();
+    }
+
+    @Test
+    void aRowWithoutMotifIsRejectedWithoutFailingItsChunk() {
+        given(patientExistenceCache.patientsExist(anyCollection())).willReturn(Map.of(10L, true, 11L, true));
+        Appointment withoutMotif = appointment(11, FIRST_SLOT.plusDays(1).plusHours(1));
+        withoutMotif.setMotif(null);
+
+        ImportResult result = appointmentImportService.importAppointments(
+                List.of(appointment(10, FIRST_SLOT.plusDays(1)), withoutMotif));
+
+        assertThat(result.results().get(0).status()).isEqualTo(RowStatus.CREATED);
+        assertThat(result.results().get(1).status()).isEqualTo(RowStatus.REJECTED);
+        assertThat(result.results().get(1).error()).isEqualTo("Le motif du rendez-vous est obligatoire");
+    }
+
+    private boolean freeSlot(LocalDateTime start) {
+        return appointmentService.getFreeSlots(MEDECIN, start, start.plusMinutes(30)).contains(start);
+    }
+
+    private static Appointment appointment(long patientId, LocalDateTime dateHeure) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientId(patientId);
+        appointment.setDateHeure(dateHeure);
+        appointment.setMotif("Consultation");
+        appointment.setMedecinNom(MEDECIN);
+        return appointment;
+    }
+}
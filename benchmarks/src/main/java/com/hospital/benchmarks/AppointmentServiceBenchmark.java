@@ -0,0 +1,67 @@
+package com.hospital.benchmarks;
+
+import com.hospital.appointment.AppointmentServiceApplication;
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Création d'un rendez-vous (vérification du patient, réservation du créneau, INSERT),
+ * avec un Patient Service simulé (StubPatientServiceClient).
+ * Chaque appel réserve un créneau différent pour ne jamais provoquer de conflit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentServiceBenchmark {
+
+    private static final int DOCTOR_COUNT = 50;
+    private static final int PATIENT_COUNT = 1000;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    private ConfigurableApplicationContext context;
+    private AppointmentService appointmentService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start("appointment-service",
+                AppointmentServiceApplication.class, StubPatientClientConfiguration.class);
+        appointmentService = context.getBean(AppointmentService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Appointment createAppointment() {
+        long n = sequence.getAndIncrement();
+
+        Appointment appointment = new Appointment();
+        appointment.setPatientId(n % PATIENT_COUNT + 1);
+        appointment.setMedecinNom("Dr Benchmark " + n % DOCTOR_COUNT);
+        appointment.setDateHeure(FIRST_SLOT.plusMinutes(30 * (n / DOCTOR_COUNT)));
+        appointment.setMotif("Consultation");
+        return appointmentService.createAppointment(appointment);
+    }
+}
@@ -0,0 +1,205 @@
+package com.hospital.benchmarks;
+
+import com.hospital.appointment.AppointmentServiceApplication;
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.appointment.repository.AppointmentRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Test de charge HTTP de l'appointment-service pendant une dégradation du Patient Service.
+ *
+ * Le Patient Service est simulé par un serveur HTTP local qui répond après "latencyMs".
+ * Deux groupes de clients tournent en parallèle :
+ * - createAppointment : créations de rendez-vous pour des patients jamais vus (appel au Patient Service) ;
+ * - getAppointment : lectures sans dépendance au Patient Service.
+ * Le débit des lectures mesure l'isolation : avec des threads Tomcat plateforme, il s'effondre
+ * dès que les créations en attente occupent tout le pool ; avec le profil "virtual-threads"
+ * (Java 21 uniquement) ou "reactive" (aucun thread bloqué pendant l'appel), il doit rester stable.
+ *
+ * Le pool Tomcat est réduit à 50 threads pour atteindre la saturation avec peu de clients.
+ * Exemple : -Djmh.args="DownstreamLatencyBenchmark -p profile=virtual-threads" (sur Java 21)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class DownstreamLatencyBenchmark {
+
+    private static final int TOMCAT_THREADS = 50;
+    private static final int DOCTOR_COUNT = 50;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 1, 8, 0);
+    private static final Pattern ID = Pattern.compile("\\d+");
+
+    @Param({"0", "500"})
+    public long latencyMs;
+
+    @Param({"default", "virtual-threads", "reactive"})
+    public String profile;
+
+    private HttpServer patientServiceStub;
+    private ExecutorService stubExecutor;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private Long existingAppointmentId;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** Résultats des créations : un 503 correspond à un rejet par le bulkhead ou le circuit breaker */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long created;
+        public long rejected;
+        public long failed;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if ("virtual-threads".equals(profile) && Runtime.version().feature() < 21) {
+            System.err.println("Java " + Runtime.version().feature() + " : spring.threads.virtual.enabled est sans effet (Java 21 requis)");
+        }
+        startPatientServiceStub();
+
+        context = ServiceContexts.start("appointment-service", WebApplicationType.SERVLET, Map.of(
+                "spring.profiles.active", profile,
+                "server.port", "0",
+                "server.tomcat.threads.max", String.valueOf(TOMCAT_THREADS),
+                "spring.cloud.discovery.client.simple.instances.patient-service[0].uri",
+                "http://localhost:" + patientServiceStub.getAddress().getPort()
+        ), AppointmentServiceApplication.class);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/appointments";
+
+        Appointment existing = new Appointment();
+        existing.setPatientId(1L);
+        existing.setMedecinNom("Dr Lecture");
+        existing.setDateHeure(FIRST_SLOT.minusDays(1));
+        existing.setMotif("Consultation");
+        existingAppointmentId = context.getBean(AppointmentRepository.class).save(existing).getId();
+
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        patientServiceStub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @Group("brownout")
+    @GroupThreads(64)
+    public int createAppointment(Outcomes outcomes) throws Exception {
+        long n = sequence.getAndIncrement();
+        String body = """
+                {"patientId": %d, "medecinNom": "Dr Charge %d", "dateHeure": "%s", "motif": "Consultation"}
+                """.formatted(1_000_000 + n, n % DOCTOR_COUNT, FIRST_SLOT.plusMinutes(30 * (n / DOCTOR_COUNT)));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 201) {
+            outcomes.created++;
+        } else if (status == 503) {
+            outcomes.rejected++;
+        } else {
+            outcomes.failed++;
+        }
+        return status;
+    }
+
+    @Benchmark
+    @Group("brownout")
+    @GroupThreads(8)
+    public int getAppointment() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + existingAppointmentId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /** Patient Service simulé : tous les patients existent, réponses retardées de latencyMs */
+    private void startPatientServiceStub() throws IOException {
+        stubExecutor = Executors.newCachedThreadPool();
+        patientServiceStub = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        patientServiceStub.setExecutor(stubExecutor);
+
+        patientServiceStub.createContext("/api/patients/events", exchange ->
+                respond(exchange, "{\"instanceId\":\"stub\",\"lastSequence\":0,\"reset\":false,\"events\":[]}"));
+        patientServiceStub.createContext("/api/patients/exists", exchange -> {
+            String ids = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            StringBuilder json = new StringBuilder("{");
+            Matcher matcher = ID.matcher(ids);
+            while (matcher.find()) {
+                json.append(json.length() > 1 ? "," : "").append('"').append(matcher.group()).append("\":true");
+            }
+            delay();
+            respond(exchange, json.append('}').toString());
+        });
+        patientServiceStub.createContext("/api/patients/", exchange -> {
+            delay();
+            respond(exchange, "{\"exists\":true}");
+        });
+        patientServiceStub.start();
+    }
+
+    private void delay() {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
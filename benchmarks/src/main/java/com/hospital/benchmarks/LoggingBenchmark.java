@@ -0,0 +1,112 @@
+package com.hospital.benchmarks;
+
+import com.hospital.patient.PatientServiceApplication;
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.repository.PatientRepository;
+import com.hospital.patient.service.PatientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des logs sur une lecture unitaire (PatientService.getPatientById, 4 threads) :
+ * - dev : configuration de développement (com.hospital en DEBUG, show-sql, console synchrone) ;
+ * - prod-debug : profil prod (JSON, appender asynchrone, échantillonnage) avec com.hospital en DEBUG,
+ *   soit autant de messages que dev : mesure l'écriture asynchrone et l'échantillonnage ;
+ * - prod : profil prod tel que déployé (INFO).
+ *
+ * La console du processus de mesure est redirigée vers target/logging-benchmark-*.log :
+ * l'écriture a lieu comme en production, sans remonter les messages jusqu'au terminal de JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final int PATIENT_COUNT = 1000;
+
+    @Param({"dev", "prod-debug", "prod"})
+    public String logging;
+
+    private PrintStream console;
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+
+    @Setup
+    public void setUp() throws Exception {
+        console = System.out;
+        System.setOut(logFile());
+
+        context = ServiceContexts.start("patient-service", WebApplicationType.NONE, overrides(),
+                PatientServiceApplication.class);
+        patientService = context.getBean(PatientService.class);
+
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 1; i <= PATIENT_COUNT; i++) {
+            patients.add(new Patient(null, "Nom" + i, "Prenom" + i, LocalDate.of(1980, 1, 1).plusDays(i),
+                    "patient" + i + "@bench.local", "0600" + i, null, null));
+        }
+        context.getBean(PatientRepository.class).saveAll(patients);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        System.out.close();
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public Patient getPatientById() {
+        return patientService.getPatientById(ThreadLocalRandom.current().nextLong(1, PATIENT_COUNT + 1));
+    }
+
+    private Map<String, String> overrides() {
+        return switch (logging) {
+            case "dev" -> Map.of(
+                    "logging.level.com.hospital", "DEBUG",
+                    "spring.jpa.show-sql", "true");
+            case "prod-debug" -> Map.of(
+                    "spring.profiles.active", "prod",
+                    "logging.level.com.hospital", "DEBUG");
+            case "prod" -> Map.of(
+                    "spring.profiles.active", "prod",
+                    "logging.level.com.hospital", "INFO");
+            default -> throw new IllegalArgumentException("Configuration de logs inconnue : " + logging);
+        };
+    }
+
+    private PrintStream logFile() throws IOException {
+        Path file = Path.of("target", "logging-benchmark-" + logging + ".log");
+        Files.createDirectories(file.getParent());
+        return new PrintStream(new FileOutputStream(file.toFile()), false);
+    }
+}
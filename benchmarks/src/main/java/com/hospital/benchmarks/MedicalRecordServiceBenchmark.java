@@ -0,0 +1,79 @@
+package com.hospital.benchmarks;
+
+import com.hospital.medical.MedicalRecordServiceApplication;
+import com.hospital.medical.dto.DiagnosticView;
+import com.hospital.medical.entity.Diagnostic;
+import com.hospital.medical.entity.MedicalRecord;
+import com.hospital.medical.repository.MedicalRecordRepository;
+import com.hospital.medical.service.MedicalRecordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture des diagnostics d'un dossier médical, selon le nombre de diagnostics par dossier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MedicalRecordServiceBenchmark {
+
+    private static final int RECORD_COUNT = 200;
+
+    @Param({"10", "100"})
+    public int diagnosticsPerRecord;
+
+    private ConfigurableApplicationContext context;
+    private MedicalRecordService medicalRecordService;
+    private List<Long> recordIds;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start("medical-record-service", MedicalRecordServiceApplication.class);
+        medicalRecordService = context.getBean(MedicalRecordService.class);
+
+        MedicalRecordRepository repository = context.getBean(MedicalRecordRepository.class);
+        recordIds = new ArrayList<>();
+        for (long patientId = 1; patientId <= RECORD_COUNT; patientId++) {
+            MedicalRecord record = new MedicalRecord();
+            record.setPatientId(patientId);
+            record.setGroupeSanguin("A+");
+            for (int i = 0; i < diagnosticsPerRecord; i++) {
+                Diagnostic diagnostic = new Diagnostic(null, "Diagnostic " + i, "Description du diagnostic " + i,
+                        LocalDate.of(2024, 1, 1).plusDays(i), "Dr Martin", "Traitement " + i, record);
+                record.getDiagnostics().add(diagnostic);
+            }
+            recordIds.add(repository.save(record).getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DiagnosticView> getDiagnosticsByDossierId() {
+        return medicalRecordService.getDiagnosticsByDossierId(
+                recordIds.get(ThreadLocalRandom.current().nextInt(recordIds.size())));
+    }
+}
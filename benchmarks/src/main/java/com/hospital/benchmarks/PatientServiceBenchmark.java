@@ -0,0 +1,84 @@
+package com.hospital.benchmarks;
+
+import com.hospital.patient.PatientServiceApplication;
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.repository.PatientRepository;
+import com.hospital.patient.service.PatientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Vérification d'existence d'un patient : appelée par les autres services
+ * avant chaque création de rendez-vous ou de dossier médical.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientServiceBenchmark {
+
+    private static final int BATCH_SIZE = 200;
+
+    @Param({"10000"})
+    public int patientCount;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start("patient-service", PatientServiceApplication.class);
+        patientService = context.getBean(PatientService.class);
+
+        PatientRepository repository = context.getBean(PatientRepository.class);
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 1; i <= patientCount; i++) {
+            patients.add(new Patient(null, "Nom" + i, "Prenom" + i, LocalDate.of(1980, 1, 1).plusDays(i % 10000),
+                    "patient" + i + "@bench.local", "0600" + i, null, null));
+        }
+        repository.saveAll(patients);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean patientExists() {
+        return patientService.patientExists(ThreadLocalRandom.current().nextLong(1, patientCount + 1));
+    }
+
+    @Benchmark
+    public boolean patientExistsMissing() {
+        return patientService.patientExists(patientCount + ThreadLocalRandom.current().nextLong(1, patientCount + 1));
+    }
+
+    /** Requête groupée telle qu'envoyée par PatientExistenceCoalescer (lots de 200 IDs) */
+    @Benchmark
+    public Map<Long, Boolean> patientsExistBatch() {
+        long first = ThreadLocalRandom.current().nextLong(1, patientCount + 1);
+        return patientService.patientsExist(LongStream.range(first, first + BATCH_SIZE).boxed().toList());
+    }
+}
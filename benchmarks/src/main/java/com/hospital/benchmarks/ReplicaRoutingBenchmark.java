@@ -0,0 +1,156 @@
+package com.hospital.benchmarks;
+
+import com.hospital.common.datasource.Replica;
+import com.hospital.common.datasource.ReplicaRoutingDataSource;
+import com.hospital.patient.PatientServiceApplication;
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.repository.PatientRepository;
+import com.hospital.patient.service.PatientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Débit des lectures (PatientService.getPatientById, 16 threads) selon le nombre de réplicas.
+ *
+ * Chaque base est une base H2 en mémoire derrière SimulatedLatencyDriver (10 ms par requête) et un pool
+ * de 4 connexions : une base sert au plus 400 lectures par seconde. Sans réplica, toutes les lectures
+ * vont sur la base principale ; avec N réplicas, elles sont réparties entre les N réplicas.
+ *
+ * Les réplicas sont des copies de la base principale faites après le chargement des patients
+ * (H2 n'a pas de réplication) : leur retard croît pendant la mesure, d'où max-lag=1h.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+@Fork(1)
+public class ReplicaRoutingBenchmark {
+
+    private static final int PATIENT_COUNT = 1000;
+    private static final int POOL_SIZE = 4;
+    private static final Duration QUERY_LATENCY = Duration.ofMillis(10);
+
+    @Param({"0", "1", "2", "3"})
+    public int replicas;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+
+    @Setup
+    public void setUp() throws Exception {
+        SimulatedLatencyDriver.register(QUERY_LATENCY);
+
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("spring.datasource.url", latencyUrl("bench-primary"));
+        overrides.put("spring.datasource.driver-class-name", SimulatedLatencyDriver.class.getName());
+        overrides.put("spring.datasource.hikari.maximum-pool-size", Integer.toString(POOL_SIZE));
+        // Schéma créé par les migrations, comme avec le profil persistent (table replication_heartbeat incluse)
+        overrides.put("spring.flyway.enabled", "true");
+        overrides.put("spring.jpa.hibernate.ddl-auto", "validate");
+        if (replicas > 0) {
+            overrides.put("datasource.replicas.urls", IntStream.rangeClosed(1, replicas)
+                    .mapToObj(i -> latencyUrl("bench-replica-" + i))
+                    .collect(Collectors.joining(",")));
+            overrides.put("datasource.replicas.pool-size", Integer.toString(POOL_SIZE));
+            overrides.put("datasource.replicas.max-lag", "1h");
+            overrides.put("datasource.replicas.lag-check-interval", "200ms");
+        }
+        context = ServiceContexts.start("patient-service", WebApplicationType.NONE, overrides,
+                PatientServiceApplication.class);
+        patientService = context.getBean(PatientService.class);
+
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 1; i <= PATIENT_COUNT; i++) {
+            patients.add(new Patient(null, "Nom" + i, "Prenom" + i, LocalDate.of(1980, 1, 1).plusDays(i),
+                    "patient" + i + "@bench.local", "0600" + i, null, null));
+        }
+        context.getBean(PatientRepository.class).saveAll(patients);
+
+        if (replicas > 0) {
+            copyPrimaryToReplicas();
+            awaitReplicasUpToDate();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Patient getPatientById() {
+        return patientService.getPatientById(ThreadLocalRandom.current().nextLong(1, PATIENT_COUNT + 1));
+    }
+
+    // Copie directe (sans latence simulée) : export SQL de la base principale rejoué sur chaque réplica
+    private void copyPrimaryToReplicas() throws SQLException, IOException {
+        Path script = Files.createTempFile("replica-seed", ".sql");
+        try {
+            try (Connection primary = DriverManager.getConnection(h2Url("bench-primary"), "sa", "");
+                 Statement statement = primary.createStatement()) {
+                statement.execute("SCRIPT TO '" + script + "'");
+            }
+            for (int i = 1; i <= replicas; i++) {
+                try (Connection replica = DriverManager.getConnection(h2Url("bench-replica-" + i), "sa", "");
+                     Statement statement = replica.createStatement()) {
+                    statement.execute("DROP ALL OBJECTS");
+                    statement.execute("RUNSCRIPT FROM '" + script + "'");
+                }
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private void awaitReplicasUpToDate() throws InterruptedException {
+        List<Replica> pending = context.getBean(ReplicaRoutingDataSource.class).getReplicas();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!pending.stream().allMatch(Replica::isUpToDate)) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Réplicas non disponibles après 10 s");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static String h2Url(String name) {
+        return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+    }
+
+    private static String latencyUrl(String name) {
+        return h2Url(name).replaceFirst("^jdbc:", "jdbc:latency:");
+    }
+}
@@ -0,0 +1,176 @@
+package com.hospital.benchmarks;
+
+import com.hospital.common.persistence.SqlStatementCounter;
+import com.hospital.medical.MedicalRecordServiceApplication;
+import com.hospital.medical.dto.MedicalRecordView;
+import com.hospital.medical.entity.Diagnostic;
+import com.hospital.medical.entity.MedicalRecord;
+import com.hospital.medical.repository.MedicalRecordRepository;
+import com.hospital.medical.service.MedicalRecordService;
+import com.hospital.patient.PatientServiceApplication;
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.repository.PatientRepository;
+import com.hospital.patient.service.PatientService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectures par ID (PatientService.getPatientById, MedicalRecordService.getRecordByPatientId),
+ * avec et sans cache de second niveau.
+ *
+ * Chaque base est une base H2 en mémoire derrière SimulatedLatencyDriver (1 ms par requête) :
+ * une requête SQL évitée est un aller-retour vers la base économisé.
+ * Le compteur auxiliaire sqlStatements est exprimé, comme le score, en nombre par seconde :
+ * sqlStatements / score = requêtes SQL par lecture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int RECORD_COUNT = 1000;
+    private static final int DIAGNOSTICS_PER_RECORD = 5;
+    private static final Duration QUERY_LATENCY = Duration.ofMillis(1);
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    @State(Scope.Benchmark)
+    public static class Patients {
+
+        private ConfigurableApplicationContext context;
+        private PatientService patientService;
+        private SqlStatementCounter statementCounter;
+
+        @Setup
+        public void setUp(SecondLevelCacheBenchmark benchmark) {
+            context = ServiceContexts.start("patient-service", WebApplicationType.NONE,
+                    overrides("patient-service", benchmark.cache), PatientServiceApplication.class);
+            patientService = context.getBean(PatientService.class);
+            statementCounter = context.getBean(SqlStatementCounter.class);
+
+            List<Patient> patients = new ArrayList<>();
+            for (int i = 1; i <= RECORD_COUNT; i++) {
+                patients.add(new Patient(null, "Nom" + i, "Prenom" + i, LocalDate.of(1980, 1, 1).plusDays(i),
+                        "patient" + i + "@bench.local", "0600" + i, null, null));
+            }
+            context.getBean(PatientRepository.class).saveAll(patients);
+            for (long id = 1; id <= RECORD_COUNT; id++) {
+                patientService.getPatientById(id);  // Cache rempli avant la mesure
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MedicalRecords {
+
+        private ConfigurableApplicationContext context;
+        private MedicalRecordService medicalRecordService;
+        private SqlStatementCounter statementCounter;
+
+        @Setup
+        public void setUp(SecondLevelCacheBenchmark benchmark) {
+            context = ServiceContexts.start("medical-record-service", WebApplicationType.NONE,
+                    overrides("medical-record-service", benchmark.cache), MedicalRecordServiceApplication.class);
+            medicalRecordService = context.getBean(MedicalRecordService.class);
+            statementCounter = context.getBean(SqlStatementCounter.class);
+
+            List<MedicalRecord> records = new ArrayList<>();
+            for (long patientId = 1; patientId <= RECORD_COUNT; patientId++) {
+                MedicalRecord record = new MedicalRecord();
+                record.setPatientId(patientId);
+                record.setGroupeSanguin("A+");
+                for (int i = 0; i < DIAGNOSTICS_PER_RECORD; i++) {
+                    record.getDiagnostics().add(new Diagnostic(null, "Diagnostic " + i, "Description du diagnostic " + i,
+                            LocalDate.of(2024, 1, 1).plusDays(i), "Dr Martin", "Traitement " + i, record));
+                }
+                records.add(record);
+            }
+            context.getBean(MedicalRecordRepository.class).saveAll(records);
+            for (long patientId = 1; patientId <= RECORD_COUNT; patientId++) {
+                medicalRecordService.getRecordByPatientId(patientId);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class SqlStatements {
+        public long sqlStatements;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sqlStatements = 0;
+        }
+    }
+
+    @Benchmark
+    public Patient getPatientById(Patients patients, SqlStatements statements) {
+        patients.statementCounter.start();
+        try {
+            return patients.patientService.getPatientById(randomId());
+        } finally {
+            statements.sqlStatements += patients.statementCounter.stop();
+        }
+    }
+
+    @Benchmark
+    public MedicalRecordView getRecordByPatientId(MedicalRecords records, SqlStatements statements) {
+        records.statementCounter.start();
+        try {
+            return records.medicalRecordService.getRecordByPatientId(randomId());
+        } finally {
+            statements.sqlStatements += records.statementCounter.stop();
+        }
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, RECORD_COUNT + 1);
+    }
+
+    private static Map<String, String> overrides(String service, boolean cache) {
+        SimulatedLatencyDriver.register(QUERY_LATENCY);
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("spring.datasource.url", "jdbc:latency:h2:mem:bench-cache-" + service + ";DB_CLOSE_DELAY=-1");
+        overrides.put("spring.datasource.driver-class-name", SimulatedLatencyDriver.class.getName());
+        overrides.put("spring.jpa.properties.hibernate.cache.use_second_level_cache", Boolean.toString(cache));
+        overrides.put("spring.jpa.properties.hibernate.cache.use_query_cache", Boolean.toString(cache));
+        return overrides;
+    }
+}
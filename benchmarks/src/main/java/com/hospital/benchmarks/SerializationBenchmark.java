@@ -0,0 +1,68 @@
+package com.hospital.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.appointment.entity.Appointment;
+import com.hospital.patient.entity.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des listes renvoyées par GET /api/patients et GET /api/appointments,
+ * avec un ObjectMapper configuré comme celui de Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Patient> patients;
+    private List<Appointment> appointments;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        patients = new ArrayList<>(size);
+        appointments = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            patients.add(new Patient(i, "Nom" + i, "Prénom" + i, LocalDate.of(1980, 1, 1).plusDays(i % 10000),
+                    "patient" + i + "@hopital.fr", "06 00 00 " + i, i + " rue de la Santé, Paris", 0L));
+            appointments.add(new Appointment(i, i, LocalDateTime.of(2030, 1, 1, 8, 0).plusMinutes(30 * i),
+                    "Consultation de suivi", "Dr Martin", Appointment.StatutRendezVous.PLANIFIE, null, 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePatients() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(patients);
+    }
+
+    @Benchmark
+    public byte[] serializeAppointments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointments);
+    }
+}
@@ -0,0 +1,77 @@
+package com.hospital.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Démarre le contexte Spring d'un microservice dans le processus du benchmark.
+ *
+ * Le application.yml du service est chargé explicitement (les trois services en ont un au même emplacement
+ * du classpath ; le logback-spring.xml, lui, est commun), puis surchargé pour un fonctionnement autonome :
+ * pas de serveur HTTP (sauf demande explicite), pas d'Eureka ni de Config Server, base H2 en mémoire dédiée,
+ * logs limités aux avertissements pour ne pas mesurer l'écriture sur la console.
+ */
+public final class ServiceContexts {
+
+    private ServiceContexts() {
+    }
+
+    /**
+     * @param service nom du module Maven (ex : "patient-service"), utilisé pour retrouver sa configuration
+     * @param sources classe principale du service, suivie d'éventuelles configurations propres au benchmark
+     */
+    public static ConfigurableApplicationContext start(String service, Class<?>... sources) {
+        return start(service, WebApplicationType.NONE, Map.of(), sources);
+    }
+
+    /**
+     * @param webApplicationType SERVLET pour démarrer aussi le serveur HTTP (tests de charge)
+     * @param overrides propriétés supplémentaires, prioritaires sur les valeurs par défaut du benchmark
+     */
+    public static ConfigurableApplicationContext start(String service, WebApplicationType webApplicationType,
+                                                       Map<String, String> overrides, Class<?>... sources) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.config.location", resourceOf(service, "application.yml"));
+        properties.put("spring.config.import", "");
+        properties.put("spring.cloud.config.enabled", "false");
+        properties.put("spring.cloud.config.import-check.enabled", "false");
+        properties.put("eureka.client.enabled", "false");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + service + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.hospital", "WARN");
+        properties.put("logging.level.io.github.resilience4j", "WARN");
+        properties.putAll(overrides);
+
+        // Passées comme arguments de ligne de commande : prioritaires sur le application.yml du service
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(sources)
+                .web(webApplicationType)
+                .run(args);
+    }
+
+    private static String resourceOf(String service, String name) {
+        try {
+            for (URL url : Collections.list(ServiceContexts.class.getClassLoader().getResources(name))) {
+                String location = url.toString();
+                if (location.contains("/" + service + "/") || location.contains("/" + service + "-")) {
+                    return location;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new IllegalStateException(name + " introuvable pour " + service);
+    }
+}
@@ -0,0 +1,107 @@
+package com.hospital.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Pilote JDBC "jdbc:latency:h2:..." : base H2 dont chaque exécution de requête prend au moins "latency",
+ * comme une base distante (aller-retour réseau et travail du serveur, sans consommer le processeur local).
+ *
+ * Sans ce délai, une base H2 en mémoire partage le processeur du benchmark : ajouter des bases
+ * n'ajoute aucune capacité. Avec lui, chaque base sert au plus (taille du pool / latence) requêtes
+ * par seconde, ce qui permet de mesurer l'effet du nombre de bases sur le débit.
+ */
+public final class SimulatedLatencyDriver implements Driver {
+
+    private static final String PREFIX = "jdbc:latency:";
+
+    private static volatile long latencyNanos;
+
+    static {
+        try {
+            DriverManager.registerDriver(new SimulatedLatencyDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Enregistre le pilote auprès de DriverManager (au premier appel) et fixe la latence des requêtes */
+    public static void register(Duration latency) {
+        latencyNanos = latency.toNanos();
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        Connection connection = DriverManager.getConnection("jdbc:" + url.substring(PREFIX.length()), info);
+        return (Connection) proxy(Connection.class, connection);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    // Connexion : les Statement créés sont enveloppés ; Statement : les exécutions sont retardées
+    private static Object proxy(Class<?> type, Object target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            Object result = invoke(method, target, args);
+            if (type == Connection.class && result instanceof Statement statement) {
+                return proxy(method.getReturnType(), statement);
+            }
+            return result;
+        };
+        return Proxy.newProxyInstance(SimulatedLatencyDriver.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.hospital.benchmarks;
+
+import com.hospital.appointment.client.PatientServiceClient;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Remplace la définition du client Feign PatientServiceClient (enregistrée par @EnableFeignClients)
+ * par StubPatientServiceClient, sans modifier le code de l'appointment-service.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StubPatientClientConfiguration {
+
+    @Bean
+    static BeanDefinitionRegistryPostProcessor stubPatientServiceClient() {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                // @EnableFeignClients enregistre le client sous le nom complet de l'interface ;
+                // la définition est remplacée sous ce même nom (référencé par l'auto-configuration Feign)
+                String beanName = PatientServiceClient.class.getName();
+                registry.removeBeanDefinition(beanName);
+
+                // Primaire, comme le client Feign : prévaut sur PatientServiceFallback qui implémente la même interface
+                RootBeanDefinition stub = new RootBeanDefinition(StubPatientServiceClient.class);
+                stub.setPrimary(true);
+                registry.registerBeanDefinition(beanName, stub);
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            }
+        };
+    }
+}
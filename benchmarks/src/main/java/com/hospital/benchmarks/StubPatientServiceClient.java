@@ -0,0 +1,25 @@
+package com.hospital.benchmarks;
+
+import com.hospital.appointment.client.PatientServiceClient;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Remplace le client Feign du Patient Service : tous les patients existent.
+ * Isole le coût propre à l'appointment-service.
+ */
+public class StubPatientServiceClient implements PatientServiceClient {
+
+    @Override
+    public Map<String, Boolean> checkPatientExists(Long id) {
+        return Map.of("exists", true);
+    }
+
+    @Override
+    public Map<Long, Boolean> checkPatientsExist(Collection<Long> ids) {
+        return ids.stream().distinct().collect(Collectors.toMap(Function.identity(), id -> true));
+    }
+}
@@ -0,0 +1,153 @@
+package com.hospital.common.admission;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite adaptative du nombre de requêtes traitées simultanément par le service.
+ *
+ * La limite suit la latence mesurée dans le service, par fenêtres (admission.window) :
+ * - latence moyenne au-dessus de admission.target-latency : la limite baisse en proportion
+ *   (limite x cible / latence, au plus de moitié) ;
+ * - sinon, si la limite a été atteinte pendant la fenêtre (part NORMAL) : elle augmente de racine(limite).
+ * Les requêtes au-delà de la limite sont refusées immédiatement (503) au lieu d'attendre
+ * un thread Tomcat ou une connexion du pool, ce qui garde une latence basse pour les requêtes admises.
+ *
+ * Chaque priorité n'a accès qu'à une part de la limite : les requêtes de masse sont refusées
+ * les premières, les appels internes des autres services en dernier.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    public enum Priority {
+        CRITICAL(1.0),  // Appels internes des autres services
+        NORMAL(0.9),    // Lectures et écritures unitaires
+        BULK(0.5);      // Listes complètes, pages, exports
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    // Échantillons minimum pour ajuster la limite à la fin d'une fenêtre
+    private static final int MIN_SAMPLES = 10;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final long windowNanos;
+
+    private volatile int limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Fenêtre de mesure courante
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowLatencyNanos = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean adjusting = new AtomicBoolean();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder[] shed = {new LongAdder(), new LongAdder(), new LongAdder()};
+
+    public AdaptiveConcurrencyLimiter(@Value("${admission.enabled:true}") boolean enabled,
+                                      @Value("${admission.initial-limit:20}") int initialLimit,
+                                      @Value("${admission.min-limit:5}") int minLimit,
+                                      @Value("${admission.max-limit:200}") int maxLimit,
+                                      @Value("${admission.target-latency:250ms}") Duration targetLatency,
+                                      @Value("${admission.window:1s}") Duration window) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.windowNanos = window.toNanos();
+    }
+
+    /** Admet la requête si la part de la limite réservée à sa priorité n'est pas atteinte */
+    public boolean tryAcquire(Priority priority) {
+        if (!enabled) {
+            return true;
+        }
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed[priority.ordinal()].increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                admitted.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Fin d'une requête admise.
+     * @param measured false pour les requêtes dont la durée ne reflète pas la charge (listes complètes, flux)
+     */
+    public void release(long latencyNanos, boolean measured) {
+        if (!enabled) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        if (measured) {
+            windowSamples.increment();
+            windowLatencyNanos.add(latencyNanos);
+        }
+        long now = System.nanoTime();
+        if (now - windowStart.get() >= windowNanos && adjusting.compareAndSet(false, true)) {
+            try {
+                adjust(now);
+            } finally {
+                adjusting.set(false);
+            }
+        }
+    }
+
+    public AdmissionStats stats() {
+        return new AdmissionStats(limit, inFlight.get(), admitted.sum(),
+                shed[Priority.CRITICAL.ordinal()].sum(), shed[Priority.NORMAL.ordinal()].sum(),
+                shed[Priority.BULK.ordinal()].sum());
+    }
+
+    private void adjust(long now) {
+        long samples = windowSamples.sum();
+        if (samples < MIN_SAMPLES) {
+            return;  // Trop peu de trafic : la fenêtre continue
+        }
+        long averageLatency = windowLatencyNanos.sum() / samples;
+        int current = limit;
+        int next = current;
+        if (averageLatency > targetLatencyNanos) {
+            double gradient = Math.max(0.5, (double) targetLatencyNanos / averageLatency);
+            next = Math.max(minLimit, (int) (current * gradient));
+        } else if (windowMaxInFlight.get() >= (int) (current * Priority.NORMAL.share)) {
+            next = Math.min(maxLimit, current + Math.max(1, (int) Math.sqrt(current)));
+        }
+        if (next != current) {
+            limit = next;
+            log.debug("Limite de concurrence : {} -> {} (latence moyenne {} ms)", current, next, averageLatency / 1_000_000);
+        }
+
+        windowSamples.reset();
+        windowLatencyNanos.reset();
+        windowMaxInFlight.set(inFlight.get());
+        windowStart.set(now);
+    }
+}
@@ -0,0 +1,121 @@
+package com.hospital.common.admission;
+
+import com.hospital.common.admission.AdaptiveConcurrencyLimiter.Priority;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Contrôle d'admission devant les contrôleurs d'un service (AdaptiveConcurrencyLimiter).
+ *
+ * Chaque service en déclare une sous-classe (@Component, ordonnée juste après le traçage)
+ * qui classe ses requêtes par priorité :
+ * - CRITICAL : appels internes des autres services ;
+ * - BULK : listes complètes, pages, flux (non mesurées : leur durée dépend du volume renvoyé) ;
+ * - NORMAL : tout le reste.
+ * Une requête refusée reçoit 503 avec Retry-After, sans atteindre le contrôleur.
+ */
+public abstract class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String basePath;
+
+    /** @param basePath préfixe des URIs contrôlées, ex : /api/patients */
+    protected AdmissionControlFilter(AdaptiveConcurrencyLimiter limiter, String basePath) {
+        this.limiter = limiter;
+        this.basePath = basePath;
+    }
+
+    /**
+     * Priorité d'une requête contrôlée.
+     * @param path URI sans le préfixe basePath ("" ou "/" pour la collection)
+     */
+    protected abstract Priority classify(HttpServletRequest request, String path);
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(basePath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = classify(request, request.getRequestURI().substring(basePath.length()));
+        if (!limiter.tryAcquire(priority)) {
+            shed(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean measured = priority != Priority.BULK;
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(start, measured));
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - start, measured);
+            }
+        }
+    }
+
+    private static void shed(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Service surchargé, veuillez réessayer dans quelques instants");
+    }
+
+    /** Requête asynchrone : la place est libérée à la fin réelle du traitement, une seule fois */
+    private class ReleaseOnCompletion implements AsyncListener {
+        private final long start;
+        private final boolean measured;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(long start, boolean measured) {
+            this.start = start;
+            this.measured = measured;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, measured);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hospital.common.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Contrôle d'admission sur /actuator/prometheus : limite, requêtes en cours,
+ * requêtes admises et refusées par priorité.
+ */
+@Component
+public class AdmissionMetrics implements MeterBinder {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public AdmissionMetrics(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("admission.limit", limiter, l -> l.stats().limit())
+                .description("Limite courante de requêtes simultanées")
+                .register(registry);
+        Gauge.builder("admission.in.flight", limiter, l -> l.stats().inFlight())
+                .register(registry);
+        FunctionCounter.builder("admission.requests", limiter, l -> l.stats().admitted())
+                .tag("outcome", "admitted").tag("priority", "ALL")
+                .register(registry);
+        shed(registry, "CRITICAL", AdmissionStats::shedCritical);
+        shed(registry, "NORMAL", AdmissionStats::shedNormal);
+        shed(registry, "BULK", AdmissionStats::shedBulk);
+    }
+
+    private void shed(MeterRegistry registry, String priority, ToDoubleFunction<AdmissionStats> count) {
+        FunctionCounter.builder("admission.requests", limiter, l -> count.applyAsDouble(l.stats()))
+                .tag("outcome", "shed").tag("priority", priority)
+                .register(registry);
+    }
+}
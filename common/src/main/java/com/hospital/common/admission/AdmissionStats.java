@@ -0,0 +1,13 @@
+package com.hospital.common.admission;
+
+/**
+ * État du limiteur de concurrence : limite courante, requêtes en cours,
+ * requêtes admises et refusées (503) par priorité.
+ */
+public record AdmissionStats(int limit,
+                             int inFlight,
+                             long admitted,
+                             long shedCritical,
+                             long shedNormal,
+                             long shedBulk) {
+}
@@ -0,0 +1,32 @@
+package com.hospital.common.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/** Requêtes couvertes (hedging) vers le Patient Service sur /actuator/prometheus */
+@Component
+public class HedgingMetrics implements MeterBinder {
+
+    private final PatientCallHedger hedger;
+
+    public HedgingMetrics(PatientCallHedger hedger) {
+        this.hedger = hedger;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hedging(registry, "patient.hedging.calls", HedgingStats::calls);
+        hedging(registry, "patient.hedging.hedges", HedgingStats::hedges);
+        hedging(registry, "patient.hedging.wins", HedgingStats::hedgeWins);
+        hedging(registry, "patient.hedging.budget.exhausted", HedgingStats::budgetExhausted);
+    }
+
+    private void hedging(MeterRegistry registry, String name, ToDoubleFunction<HedgingStats> count) {
+        FunctionCounter.builder(name, hedger, h -> count.applyAsDouble(h.stats()))
+                .register(registry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.hospital.common.client;
+
+/**
+ * Compteurs des requêtes couvertes vers le Patient Service : appels, secondes requêtes envoyées,
+ * secondes requêtes arrivées les premières, secondes requêtes refusées faute de budget.
+ */
+public record HedgingStats(long calls,
+                           long hedges,
+                           long hedgeWins,
+                           long budgetExhausted) {
+}
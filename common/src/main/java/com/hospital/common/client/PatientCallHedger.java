@@ -0,0 +1,169 @@
+package com.hospital.common.client;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Requêtes couvertes (hedging) pour les lectures idempotentes vers le Patient Service.
+ *
+ * Sans réponse après patient-client.hedging.delay, une seconde requête identique est envoyée
+ * et la première réponse exploitable est retenue. L'instance lente a alors une requête en cours :
+ * le répartiteur de charge (LatencyAwareLoadBalancer) envoie la seconde vers une autre instance.
+ *
+ * Budget : chaque appel rapporte budget-percent % d'une requête supplémentaire, plafonné à
+ * max-burst requêtes ; sans crédit, pas de seconde requête. Un Patient Service lent dans
+ * son ensemble reçoit donc au plus budget-percent % de requêtes en plus.
+ * Un échec rapide de la première requête n'est pas couvert (c'est le rôle du Retry).
+ */
+@Component
+public class PatientCallHedger {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientCallHedger.class);
+
+    // Crédit en millièmes de requête
+    private static final long HEDGE_COST = 1000;
+
+    private final boolean enabled;
+    private final long delayNanos;
+    private final long creditPerCall;
+    private final long maxCredit;
+    private final ExecutorService executor;
+
+    private final AtomicLong credit;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    public PatientCallHedger(@Value("${patient-client.hedging.enabled:false}") boolean enabled,
+                             @Value("${patient-client.hedging.delay:50ms}") Duration delay,
+                             @Value("${patient-client.hedging.budget-percent:10}") int budgetPercent,
+                             @Value("${patient-client.hedging.max-burst:10}") int maxBurst) {
+        this.enabled = enabled;
+        this.delayNanos = delay.toNanos();
+        this.creditPerCall = HEDGE_COST * Math.max(0, Math.min(budgetPercent, 100)) / 100;
+        this.maxCredit = HEDGE_COST * Math.max(1, maxBurst);
+        this.credit = new AtomicLong(maxCredit);
+        AtomicInteger counter = new AtomicInteger();
+        // Les requêtes partent dans le contexte de l'appelant (trace en cours, MDC)
+        this.executor = ContextExecutorService.wrap(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "patient-hedge-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), ContextSnapshotFactory.builder().build()::captureAll);
+    }
+
+    /**
+     * Appel couvert.
+     * @param usable false pour une réponse de repli (fallback) : la réponse de l'autre requête est alors attendue
+     */
+    public <T> T call(Supplier<T> call, Predicate<? super T> usable) {
+        if (!enabled) {
+            return call.get();
+        }
+        calls.increment();
+        credit.accumulateAndGet(creditPerCall, (current, earned) -> Math.min(maxCredit, current + earned));
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        launch(call, usable, result, running, false);
+        try {
+            return result.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (result.isDone()) {
+                return await(result);
+            }
+            if (tryConsumeCredit()) {
+                hedges.increment();
+                running.incrementAndGet();
+                launch(call, usable, result, running, true);
+            } else {
+                budgetExhausted.increment();
+            }
+            return await(result);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Appel au Patient Service interrompu");
+        }
+    }
+
+    public HedgingStats stats() {
+        return new HedgingStats(calls.sum(), hedges.sum(), hedgeWins.sum(), budgetExhausted.sum());
+    }
+
+    /**
+     * Exécute une requête ; la première réponse exploitable termine l'appel.
+     * Sinon la dernière requête terminée donne le résultat (réponse de repli ou exception).
+     */
+    private <T> void launch(Supplier<T> call, Predicate<? super T> usable, CompletableFuture<T> result,
+                            AtomicInteger running, boolean hedge) {
+        executor.execute(() -> {
+            T value;
+            try {
+                value = call.get();
+            } catch (Throwable e) {
+                if (running.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+                return;
+            }
+            boolean last = running.decrementAndGet() == 0;
+            if ((usable.test(value) || last) && result.complete(value) && hedge) {
+                hedgeWins.increment();
+                log.debug("Réponse du Patient Service obtenue par la seconde requête");
+            }
+        });
+    }
+
+    private boolean tryConsumeCredit() {
+        while (true) {
+            long current = credit.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+            if (credit.compareAndSet(current, current - HEDGE_COST)) {
+                return true;
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Appel au Patient Service interrompu");
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,51 @@
+package com.hospital.common.client;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Vérifications d'existence exposées par le Patient Service (/api/patients).
+ *
+ * Étendue par le client Feign de chaque service appelant ; PatientExistenceCoalescer
+ * ne dépend que de cette interface.
+ *
+ * Le fallback du client Feign répond {"exists": false, "fallback": true} (unitaire)
+ * ou une réponse vide (batch) : le patient n'a pas pu être vérifié.
+ */
+public interface PatientExistenceClient {
+
+    /**
+     * Vérifie si un patient existe dans le Patient Service.
+     * Appel REST : GET http://patient-service/api/patients/{id}/exists
+     */
+    @GetMapping("/{id}/exists")
+    Map<String, Boolean> checkPatientExists(@PathVariable("id") Long id);
+
+    /**
+     * Vérifie l'existence de plusieurs patients en un seul appel.
+     * Appel REST : POST http://patient-service/api/patients/exists
+     */
+    @PostMapping("/exists")
+    Map<Long, Boolean> checkPatientsExist(@RequestBody Collection<Long> ids);
+
+    /** Réponse de fallback : ni "existe" ni "n'existe pas" */
+    static boolean isFallback(Map<String, Boolean> response) {
+        return response.getOrDefault("fallback", false);
+    }
+
+    /**
+     * Existence du patient d'après une réponse de checkPatientExists.
+     * Une réponse de fallback lève PatientServiceUnavailableException (503, échec du circuit breaker).
+     */
+    static boolean exists(Long patientId, Map<String, Boolean> response) {
+        if (isFallback(response)) {
+            throw new PatientServiceUnavailableException(patientId);
+        }
+        return response.getOrDefault("exists", false);
+    }
+}
@@ -0,0 +1,169 @@
+package com.hospital.common.client;
+
+import io.micrometer.context.ContextScheduledExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regroupe les vérifications d'existence concurrentes en un seul appel batch.
+ *
+ * Les appels checkPatientExists reçus pendant une courte fenêtre (quelques ms)
+ * sont envoyés ensemble à POST /api/patients/exists. Un même ID demandé plusieurs
+ * fois dans la fenêtre ne part qu'une fois. La fenêtre est fermée plus tôt
+ * si le lot atteint max-batch.
+ *
+ * La réponse a le même format que PatientExistenceClient.checkPatientExists ;
+ * un ID absent de la réponse batch (fallback) est signalé par "fallback": true.
+ * Les deux appels (unitaire et batch) sont des lectures : ils passent par PatientCallHedger,
+ * qui écarte les réponses de fallback au profit d'une requête couverte.
+ */
+@Component
+public class PatientExistenceCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientExistenceCoalescer.class);
+
+    private static final Map<String, Boolean> EXISTS = Map.of("exists", true);
+    private static final Map<String, Boolean> NOT_FOUND = Map.of("exists", false);
+    private static final Map<String, Boolean> UNVERIFIED = Map.of("exists", false, "fallback", true);
+
+    private final PatientExistenceClient patientClient;
+    private final PatientCallHedger hedger;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Duration timeout;
+    private final ScheduledExecutorService flushExecutor;
+
+    // Lot en cours de constitution ; protégé par synchronized(this)
+    private Map<Long, CompletableFuture<Map<String, Boolean>>> pending = new HashMap<>();
+    private boolean flushScheduled;
+
+    public PatientExistenceCoalescer(PatientExistenceClient patientClient,
+                                     PatientCallHedger hedger,
+                                     @Value("${patient-client.coalescing.enabled:true}") boolean enabled,
+                                     @Value("${patient-client.coalescing.window:5ms}") Duration window,
+                                     @Value("${patient-client.coalescing.max-batch:200}") int maxBatch,
+                                     @Value("${patient-client.coalescing.timeout:5s}") Duration timeout,
+                                     @Value("${patient-client.coalescing.threads:4}") int threads) {
+        this.patientClient = patientClient;
+        this.hedger = hedger;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.timeout = timeout;
+        AtomicInteger counter = new AtomicInteger();
+        // L'appel groupé est rattaché à la trace de la requête qui a ouvert la fenêtre
+        this.flushExecutor = ContextScheduledExecutorService.wrap(Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "patient-exists-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), ContextSnapshotFactory.builder().build()::captureAll);
+    }
+
+    /**
+     * Vérifie l'existence d'un patient ; l'appel est regroupé avec les vérifications concurrentes.
+     */
+    public Map<String, Boolean> checkPatientExists(Long id) {
+        if (!enabled) {
+            return hedger.call(() -> patientClient.checkPatientExists(id),
+                    response -> !PatientExistenceClient.isFallback(response));
+        }
+
+        CompletableFuture<Map<String, Boolean>> future;
+        Map<Long, CompletableFuture<Map<String, Boolean>>> fullBatch = null;
+        synchronized (this) {
+            future = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (pending.size() >= maxBatch) {
+                fullBatch = pending;
+                pending = new HashMap<>();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                flushExecutor.schedule(this::flushPending, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+        return await(id, future);
+    }
+
+    /**
+     * Vérifie directement un ensemble d'IDs (imports), par lots de max-batch.
+     * Les IDs absents du résultat n'ont pas pu être vérifiés.
+     */
+    public Map<Long, Boolean> checkPatientsExist(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        Map<Long, Boolean> result = new HashMap<>();
+        for (int from = 0; from < all.size(); from += maxBatch) {
+            result.putAll(patientClient.checkPatientsExist(all.subList(from, Math.min(from + maxBatch, all.size()))));
+        }
+        return result;
+    }
+
+    private void flushPending() {
+        Map<Long, CompletableFuture<Map<String, Boolean>>> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new HashMap<>();
+            flushScheduled = false;
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(Map<Long, CompletableFuture<Map<String, Boolean>>> batch) {
+        Map<Long, Boolean> result;
+        try {
+            result = hedger.call(() -> patientClient.checkPatientsExist(batch.keySet()),
+                    response -> !response.isEmpty());
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        log.debug("Vérification groupée de {} patient(s)", batch.size());
+        batch.forEach((id, future) -> {
+            Boolean exists = result.get(id);
+            future.complete(exists == null ? UNVERIFIED : exists ? EXISTS : NOT_FOUND);
+        });
+    }
+
+    private Map<String, Boolean> await(Long id, CompletableFuture<Map<String, Boolean>> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Délai dépassé pour la vérification du patient ID: " + id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Vérification du patient ID " + id + " interrompue");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushExecutor.shutdownNow();
+    }
+}
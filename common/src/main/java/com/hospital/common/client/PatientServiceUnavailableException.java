@@ -0,0 +1,19 @@
+package com.hospital.common.client;
+
+/**
+ * L'existence du patient n'a pas pu être vérifiée : Patient Service indisponible
+ * (réponse de fallback, circuit ouvert, délai dépassé).
+ *
+ * Distincte d'un patient inexistant : comptée comme un échec par le circuit breaker,
+ * renvoyée au client en 503 et non en 400.
+ */
+public class PatientServiceUnavailableException extends RuntimeException {
+
+    public PatientServiceUnavailableException(Long patientId) {
+        super("Patient Service indisponible : impossible de vérifier l'existence du patient ID: " + patientId);
+    }
+
+    public PatientServiceUnavailableException(String message) {
+        super(message);
+    }
+}
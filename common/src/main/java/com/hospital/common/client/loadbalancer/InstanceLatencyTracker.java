@@ -0,0 +1,88 @@
+package com.hospital.common.client.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latence observée et requêtes en cours par instance du Patient Service.
+ *
+ * Latence : moyenne mobile exponentielle "à pic" (peak EWMA) — une réponse plus lente que la moyenne
+ * la remplace immédiatement, une réponse plus rapide ne la fait baisser que progressivement
+ * (constante de temps patient-client.load-balancing.decay-time). Sans nouvelle mesure, la moyenne
+ * décroît avec le temps : une instance écartée après un pic de latence est de nouveau essayée.
+ *
+ * Coût d'une instance = latence x (requêtes en cours + 1) ; utilisé par LatencyAwareLoadBalancer.
+ * Alimenté par LatencyRecordingLifecycle (appels Feign et WebClient vers le Patient Service).
+ */
+@Component
+public class InstanceLatencyTracker {
+
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final ConcurrentHashMap<String, InstanceLatency> instances = new ConcurrentHashMap<>();
+
+    public InstanceLatencyTracker(@Value("${patient-client.load-balancing.decay-time:10s}") Duration decayTime,
+                                  @Value("${patient-client.load-balancing.failure-penalty:1s}") Duration failurePenalty) {
+        this.decayNanos = Math.max(1, decayTime.toNanos());
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    /** Coût de l'instance ; 0 pour une instance jamais appelée, qui est donc essayée en priorité */
+    public double cost(ServiceInstance instance) {
+        InstanceLatency latency = instances.get(keyOf(instance));
+        return latency == null ? 0 : latency.cost(System.nanoTime());
+    }
+
+    void requestStarted(ServiceInstance instance) {
+        instances.computeIfAbsent(keyOf(instance), key -> new InstanceLatency()).outstanding.incrementAndGet();
+    }
+
+    /** Fin d'un appel : un échec compte au moins failure-penalty, pour écarter l'instance */
+    void requestCompleted(ServiceInstance instance, long latencyNanos, boolean failed) {
+        InstanceLatency latency = instances.computeIfAbsent(keyOf(instance), key -> new InstanceLatency());
+        latency.outstanding.decrementAndGet();
+        latency.observe(System.nanoTime(), failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos);
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private class InstanceLatency {
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        // Protégés par synchronized(this) en écriture
+        private volatile double ewmaNanos;
+        private volatile long updatedAt = System.nanoTime();
+
+        synchronized void observe(long now, long latencyNanos) {
+            double current = decayed(now);
+            if (latencyNanos > current) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - updatedAt) / decayNanos);
+                ewmaNanos = current * weight + latencyNanos * (1 - weight);
+            }
+            updatedAt = now;
+        }
+
+        double cost(long now) {
+            int inFlight = Math.max(0, outstanding.get());
+            double latency = decayed(now);
+            if (latency == 0) {
+                // Aucune mesure encore : chaque requête en cours compte comme un échec
+                return (double) failurePenaltyNanos * inFlight;
+            }
+            return latency * (inFlight + 1);
+        }
+
+        private double decayed(long now) {
+            return ewmaNanos * Math.exp(-(double) Math.max(0, now - updatedAt) / decayNanos);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hospital.common.client.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration du répartiteur de charge pour "patient-service" (@LoadBalancerClient).
+ *
+ * Chargée uniquement dans le contexte du client patient-service, d'où l'absence de @Configuration.
+ * Avec patient-client.load-balancing.enabled=false, le round-robin par défaut de Spring Cloud s'applique.
+ */
+@ConditionalOnProperty(name = "patient-client.load-balancing.enabled", havingValue = "true", matchIfMissing = true)
+public class PatientServiceLoadBalancerConfiguration {
+
+    @Bean
+    ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                 LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                 InstanceLatencyTracker tracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), tracker);
+    }
+
+    @Bean
+    LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> latencyRecordingLifecycle(
+            InstanceLatencyTracker tracker) {
+        return new LatencyRecordingLifecycle(tracker);
+    }
+}
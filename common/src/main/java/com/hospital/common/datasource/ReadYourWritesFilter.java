@@ -0,0 +1,114 @@
+package com.hospital.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Lecture de ses propres écritures malgré le retard des réplicas.
+ *
+ * Après une écriture validée, la réponse pose un cookie valable datasource.replicas.sticky-window :
+ * tant que le client le renvoie, ses lectures sont servies par la base principale
+ * (ex : le patient qu'il vient de créer est visible dès le GET suivant).
+ * Dans la requête qui a écrit, les lectures suivantes vont aussi sur la base principale.
+ *
+ * L'état est un attribut de la requête, retrouvé par RequestContextHolder : un traitement déporté
+ * sur un autre thread (ex : scheduler JDBC du chemin non bloquant) y rattache la requête d'origine.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String SCOPE_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".SCOPE";
+
+    private final String cookieName;
+    private final Duration stickyWindow;
+
+    public ReadYourWritesFilter(String cookieName, Duration stickyWindow) {
+        this.cookieName = cookieName;
+        this.stickyWindow = stickyWindow;
+    }
+
+    /** Vrai si les lectures de la requête courante doivent être servies par la base principale */
+    static boolean isSticky() {
+        RequestScope scope = currentScope();
+        return scope != null && scope.sticky;
+    }
+
+    /** Écriture validée pendant la requête courante */
+    static void written() {
+        RequestScope scope = currentScope();
+        if (scope != null) {
+            scope.written();
+        }
+    }
+
+    private static RequestScope currentScope() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request == null ? null : (RequestScope) request.getAttribute(SCOPE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        request.setAttribute(SCOPE_ATTRIBUTE, new RequestScope(response, primaryUntil(request) > System.currentTimeMillis()));
+        chain.doFilter(request, response);
+    }
+
+    private long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private final class RequestScope {
+        private final HttpServletResponse response;
+        private volatile boolean sticky;
+        private boolean cookieSet;
+
+        RequestScope(HttpServletResponse response, boolean sticky) {
+            this.response = response;
+            this.sticky = sticky;
+        }
+
+        synchronized void written() {
+            sticky = true;
+            if (cookieSet || response.isCommitted()) {
+                return;
+            }
+            long primaryUntil = System.currentTimeMillis() + stickyWindow.toMillis();
+            ResponseCookie cookie = ResponseCookie.from(cookieName, Long.toString(primaryUntil))
+                    .path("/")
+                    .maxAge(stickyWindow)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            cookieSet = true;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.hospital.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Base en lecture seule alimentée par réplication depuis la base principale.
+ *
+ * Servie uniquement si son dernier retard mesuré (ReplicaLagMonitor) est sous le maximum toléré :
+ * tant qu'aucune mesure n'a réussi, ou si elle est injoignable, les lectures restent sur la base principale.
+ */
+public class Replica {
+
+    private static final Logger log = LoggerFactory.getLogger(Replica.class);
+
+    private final String name;
+    private final HikariDataSource dataSource;
+
+    private volatile boolean upToDate;
+    private volatile double lagSeconds = Double.NaN;
+
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isUpToDate() {
+        return upToDate;
+    }
+
+    /** Dernier retard mesuré, en secondes ; NaN si le réplica est injoignable */
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    void lagMeasured(Duration lag, Duration maxLag) {
+        boolean wasUpToDate = upToDate;
+        lagSeconds = lag.toNanos() / 1e9;
+        upToDate = lag.compareTo(maxLag) <= 0;
+        if (wasUpToDate && !upToDate) {
+            log.warn("Réplica {} en retard de {} ms (max {} ms) : lectures sur la base principale",
+                    name, lag.toMillis(), maxLag.toMillis());
+        } else if (!wasUpToDate && upToDate) {
+            log.info("Réplica {} à jour (retard {} ms) : lectures réparties", name, lag.toMillis());
+        }
+    }
+
+    void unavailable(Exception cause) {
+        boolean wasUpToDate = upToDate;
+        upToDate = false;
+        lagSeconds = Double.NaN;
+        if (wasUpToDate) {
+            log.warn("Réplica {} injoignable : lectures sur la base principale ({})", name, cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hospital.common.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure du retard de réplication (table replication_heartbeat).
+ *
+ * À chaque passage (datasource.replicas.lag-check-interval) : l'heure courante est écrite sur la base
+ * principale, puis relue sur chaque réplica ; l'écart avec l'heure courante est le retard du réplica.
+ * Au-delà de datasource.replicas.max-lag, ou s'il est injoignable, le réplica n'est plus servi
+ * jusqu'à la mesure suivante sous le seuil.
+ */
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String WRITE_HEARTBEAT = "update replication_heartbeat set beat_at = ? where id = 1";
+    private static final String READ_HEARTBEAT = "select beat_at from replication_heartbeat where id = 1";
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas, Duration maxLag, Duration interval) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        executor.scheduleWithFixedDelay(this::check, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void check() {
+        try {
+            primary.update(WRITE_HEARTBEAT, OffsetDateTime.now());
+        } catch (DataAccessException e) {
+            log.warn("Battement de réplication non écrit sur la base principale : {}", e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            try {
+                OffsetDateTime beat = new JdbcTemplate(replica.getDataSource())
+                        .queryForObject(READ_HEARTBEAT, OffsetDateTime.class);
+                Duration lag = Duration.between(beat, OffsetDateTime.now());
+                replica.lagMeasured(lag.isNegative() ? Duration.ZERO : lag, maxLag);
+            } catch (DataAccessException e) {
+                replica.unavailable(e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.hospital.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectures réparties sur des réplicas (profil replicas, activé par datasource.replicas.urls).
+ *
+ * La base principale reste configurée par spring.datasource ; chaque réplica a son propre pool,
+ * en lecture seule, avec les mêmes identifiants. La source de données de l'application
+ * (JPA, Flyway, JdbcTemplate) est le routage ReplicaRoutingDataSource, derrière un
+ * LazyConnectionDataSourceProxy qui retarde le choix de la base à la première requête SQL.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "urls")
+public class ReplicaRoutingConfiguration {
+
+    // Réplica injoignable : échec rapide, la lecture est servie par la base principale
+    private static final Duration REPLICA_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceProperties properties,
+                                                      MeterRegistry meterRegistry,
+                                                      @Value("${datasource.replicas.urls}") List<String> urls,
+                                                      @Value("${datasource.replicas.pool-size:10}") int poolSize) {
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(url.trim());
+            dataSource.setUsername(properties.determineUsername());
+            dataSource.setPassword(properties.determinePassword());
+            dataSource.setReadOnly(true);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT.toMillis());
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new Replica(name, dataSource));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               ReplicaRoutingDataSource routingDataSource,
+                                               @Value("${datasource.replicas.max-lag:5s}") Duration maxLag,
+                                               @Value("${datasource.replicas.lag-check-interval:1s}") Duration interval) {
+        return new ReplicaLagMonitor(primaryDataSource, routingDataSource.getReplicas(), maxLag, interval);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${spring.application.name}") String applicationName,
+            @Value("${datasource.replicas.sticky-window:5s}") Duration stickyWindow) {
+        return new ReadYourWritesFilter(applicationName + "-primary-until", stickyWindow);
+    }
+}
@@ -0,0 +1,157 @@
+package com.hospital.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Choix de la base pour chaque connexion :
+ * - transaction en lecture seule déclarée dans un service (@Transactional(readOnly = true)) :
+ *   un réplica à jour, à tour de rôle ;
+ * - tout le reste (écritures, appels hors transaction de service) : base principale.
+ *
+ * Une lecture revient sur la base principale si aucun réplica n'est à jour (retard ou panne),
+ * si le réplica choisi ne fournit pas de connexion, ou si le client vient d'écrire (ReadYourWritesFilter).
+ *
+ * Les transactions implicites des repositories Spring Data (appels hors transaction de service,
+ * ex : vérifications d'existence des autres services avant une écriture) restent sur la base principale.
+ *
+ * Appelé quand LazyConnectionDataSourceProxy obtient la connexion réelle, à la première requête SQL :
+ * la transaction est alors démarrée et son mode lecture seule connu.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+    private static final String SPRING_DATA_PACKAGE = "org.springframework.data.";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Map<DataSource, Replica> replicasByDataSource = new IdentityHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Map<String, Counter> replicaReads = new HashMap<>();
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+            replicasByDataSource.put(replica.getDataSource(), replica);
+            replicaReads.put(replica.getName(), readCounter(meterRegistry, replica.getName(), "replica"));
+            Gauge.builder("datasource.replica.lag", replica, Replica::getLagSeconds)
+                    .description("Dernier retard mesuré du réplica (NaN : injoignable)")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        this.stickyReads = readCounter(meterRegistry, PRIMARY, "sticky");
+        this.fallbackReads = readCounter(meterRegistry, PRIMARY, "no_replica");
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        Replica replica = replicasByDataSource.get(target);
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            if (replica == null) {
+                throw e;
+            }
+            // Réplica en panne depuis la dernière mesure : la lecture est servie par la base principale
+            replica.unavailable(e);
+            fallbackReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isServiceReadOnlyTransaction()) {
+            trackCommittedWrite();
+            return PRIMARY;
+        }
+        if (ReadYourWritesFilter.isSticky()) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        Replica replica = nextUpToDate();
+        if (replica == null) {
+            fallbackReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.get(replica.getName()).increment();
+        return replica.getName();
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    private static boolean isServiceReadOnlyTransaction() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name != null && !name.startsWith(SPRING_DATA_PACKAGE);
+    }
+
+    // Écriture validée : les lectures suivantes du client sont servies par la base principale
+    private static void trackCommittedWrite() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadYourWritesFilter.written();
+                }
+            });
+        }
+    }
+
+    private Replica nextUpToDate() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUpToDate()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.reads")
+                .description("Transactions en lecture seule des services, par base servante")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.hospital.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Échantillonnage des messages répétitifs (logback-spring.xml, profil prod).
+ *
+ * Un même message (même modèle "Patient créé avec succès, ID : {}", quels que soient ses paramètres)
+ * est écrit au plus allowedPerSecond fois par seconde ; les suivants de la seconde sont ignorés.
+ * Seuls les niveaux INFO et inférieurs sont échantillonnés : WARN et ERROR sont toujours écrits.
+ * Contrairement à DuplicateMessageFilter de Logback, un message fréquent n'est jamais supprimé
+ * définitivement : il réapparaît à chaque seconde.
+ *
+ * Appelé avant le test de niveau du logger, pour chaque appel de log : les appels d'un niveau
+ * désactivé (DEBUG en production) ne sont pas comptés et ne coûtent qu'une comparaison de niveaux.
+ */
+public class RepeatedMessageFilter extends TurboFilter {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private int allowedPerSecond = 20;
+    private int cacheSize = 1000;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public void setAllowedPerSecond(int allowedPerSecond) {
+        this.allowedPerSecond = allowedPerSecond;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= cacheSize) {
+                windows.clear();  // Modèles de messages en nombre limité : cas exceptionnel
+            }
+            window = windows.computeIfAbsent(format, key -> new Window());
+        }
+        return window.tryAcquire(System.nanoTime(), allowedPerSecond) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private static final class Window {
+        private final AtomicLong start = new AtomicLong(System.nanoTime());
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long now, int allowed) {
+            long current = start.get();
+            if (now - current >= WINDOW_NANOS && start.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= allowed;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.hospital.common.metrics;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Changements d'état des circuit breakers (resilience4j.circuitbreaker.transitions, par nom, état de départ
+ * et d'arrivée) : circuits des routes de la Gateway, "patientService" et ceux créés à la volée
+ * pour les appels Feign dans les services.
+ * L'état courant est déjà exporté par Resilience4j (resilience4j.circuitbreaker.state) ;
+ * ce compteur garde aussi les ouvertures brèves, survenues entre deux collectes.
+ * Les circuits créés après le démarrage (première requête) sont suivis via les ajouts du registre.
+ */
+@Component
+public class CircuitBreakerTransitionMetrics implements MeterBinder {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    public CircuitBreakerTransitionMetrics(CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(circuitBreaker -> bind(circuitBreaker, registry));
+        circuitBreakerRegistry.getEventPublisher()
+                .onEntryAdded(event -> bind(event.getAddedEntry(), registry))
+                .onEntryReplaced(event -> bind(event.getNewEntry(), registry));
+    }
+
+    private static void bind(CircuitBreaker circuitBreaker, MeterRegistry registry) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> Counter
+                .builder("resilience4j.circuitbreaker.transitions")
+                .description("Changements d'état du circuit breaker")
+                .tag("name", circuitBreaker.getName())
+                .tag("from", event.getStateTransition().getFromState().name())
+                .tag("to", event.getStateTransition().getToState().name())
+                .register(registry)
+                .increment());
+    }
+}
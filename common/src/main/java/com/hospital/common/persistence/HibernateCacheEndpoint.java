@@ -0,0 +1,62 @@
+package com.hospital.common.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * GET /actuator/hibernatecache : efficacité du cache de second niveau depuis le démarrage.
+ *
+ * Chaque succès (hits) est une lecture servie sans requête SQL ; statements est le nombre total
+ * de requêtes SQL préparées, pour comparaison. Les mêmes compteurs sont exposés sur
+ * /actuator/prometheus (hibernate.second.level.cache.requests, hibernate.query.cache.requests).
+ *
+ * Exposé par les services qui l'ajoutent à management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class HibernateCacheEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public CacheStatistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, new RegionStatistics(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        return new CacheStatistics(
+                Instant.ofEpochMilli(statistics.getStartTime()),
+                statistics.isStatisticsEnabled(),
+                regions,
+                new QueryCacheStatistics(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                        statistics.getQueryCachePutCount()),
+                statistics.getPrepareStatementCount());
+    }
+
+    public record CacheStatistics(Instant since, boolean enabled, Map<String, RegionStatistics> regions,
+                                  QueryCacheStatistics queries, long statements) {
+    }
+
+    public record RegionStatistics(long hits, long misses, long puts) {
+    }
+
+    public record QueryCacheStatistics(long hits, long misses, long puts) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.hospital.common.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Page de résultats paginée par curseur (keyset / seek).
+ *
+ * nextCursor est opaque pour le client : il encode le dernier ID renvoyé,
+ * la page suivante est lue avec "WHERE id > ?" au lieu d'un OFFSET.
+ * nextCursor vaut null quand il n'y a plus de résultats.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    private static final String PREFIX = "id:";
+
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur ; null ou vide = début de la liste.
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Curseur invalide : " + cursor);
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {  // inclut NumberFormatException
+            throw new IllegalArgumentException("Curseur invalide : " + cursor);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.hospital.common.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Écrit une réponse NDJSON (application/x-ndjson) : un objet JSON par ligne,
+ * envoyé au fil du parcours sans construire la liste complète en mémoire.
+ */
+public final class NdjsonWriter {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream out;
+
+    private NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.out = out;
+    }
+
+    /** Fixe le type de contenu de la réponse et écrit dans son flux */
+    public static NdjsonWriter open(HttpServletResponse response, ObjectMapper objectMapper) throws IOException {
+        response.setContentType(MEDIA_TYPE);
+        return new NdjsonWriter(objectMapper, response.getOutputStream());
+    }
+
+    /** Écrit un objet sur une ligne ; appelé depuis les callbacks de parcours (pas d'exception vérifiée) */
+    public void writeLine(Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
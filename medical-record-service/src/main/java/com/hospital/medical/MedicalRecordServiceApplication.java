@@ -1,16 +1,28 @@
 package com.hospital.medical;
 
+import com.hospital.common.client.loadbalancer.PatientServiceLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 /**
  * Microservice Dossiers Médicaux.
+ * @LoadBalancerClient : répartition vers l'instance du Patient Service la plus rapide (latence, requêtes en cours).
+ * scanBasePackages : composants partagés utilisés par le service (module common).
  */
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {
+        "com.hospital.medical",
+        "com.hospital.common.admission",
+        "com.hospital.common.client",
+        "com.hospital.common.datasource",
+        "com.hospital.common.metrics",
+        "com.hospital.common.persistence"
+})
 @EnableDiscoveryClient
 @EnableFeignClients
+@LoadBalancerClient(name = "patient-service", configuration = PatientServiceLoadBalancerConfiguration.class)
 public class MedicalRecordServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(MedicalRecordServiceApplication.class, args);
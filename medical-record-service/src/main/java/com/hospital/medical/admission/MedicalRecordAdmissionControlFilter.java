@@ -0,0 +1,34 @@
+package com.hospital.medical.admission;
+
+import com.hospital.common.admission.AdaptiveConcurrencyLimiter;
+import com.hospital.common.admission.AdaptiveConcurrencyLimiter.Priority;
+import com.hospital.common.admission.AdmissionControlFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contrôle d'admission devant /api/medical-records/**.
+ *
+ * Priorités :
+ * - BULK : GET /api/medical-records, /page et /stream ;
+ * - NORMAL : tout le reste (dossiers et diagnostics unitaires).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class MedicalRecordAdmissionControlFilter extends AdmissionControlFilter {
+
+    public MedicalRecordAdmissionControlFilter(AdaptiveConcurrencyLimiter limiter) {
+        super(limiter, "/api/medical-records");
+    }
+
+    @Override
+    protected Priority classify(HttpServletRequest request, String path) {
+        boolean get = "GET".equals(request.getMethod());
+        if (get && (path.isEmpty() || path.equals("/") || path.equals("/page") || path.equals("/stream"))) {
+            return Priority.BULK;
+        }
+        return Priority.NORMAL;
+    }
+}
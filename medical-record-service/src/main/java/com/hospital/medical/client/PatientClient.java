@@ -1,25 +1,24 @@
 package com.hospital.medical.client;
 
+import com.hospital.common.client.PatientExistenceClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.stereotype.Component;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
  * Client Feign vers le Patient Service - pour vérifier l'existence des patients.
+ * Méthodes déclarées par PatientExistenceClient (module common).
  */
 @FeignClient(name = "patient-service", path = "/api/patients", fallback = PatientClientFallback.class)
-public interface PatientClient {
-
-    @GetMapping("/{id}/exists")
-    Map<String, Boolean> checkPatientExists(@PathVariable("id") Long id);
+public interface PatientClient extends PatientExistenceClient {
 }
 
 /**
  * Fallback : appelé quand le Patient Service est indisponible.
+ * "fallback" signale un patient non vérifié (ni mis en cache, ni considéré comme inexistant).
  */
 @Component
 @Slf4j
@@ -28,6 +27,12 @@ class PatientClientFallback implements PatientClient {
     @Override
     public Map<String, Boolean> checkPatientExists(Long id) {
         log.warn("[FALLBACK] Patient Service indisponible pour vérifier patient ID: {}", id);
-        return Map.of("exists", false);
+        return Map.of("exists", false, "fallback", true);
+    }
+
+    @Override
+    public Map<Long, Boolean> checkPatientsExist(Collection<Long> ids) {
+        log.warn("[FALLBACK] Patient Service indisponible pour vérifier {} patient(s)", ids.size());
+        return Map.of();
     }
 }
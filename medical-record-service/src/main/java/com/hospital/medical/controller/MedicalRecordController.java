@@ -1,19 +1,32 @@
 package com.hospital.medical.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.common.client.PatientServiceUnavailableException;
+import com.hospital.common.web.NdjsonWriter;
+import com.hospital.medical.dto.MedicalRecordView;
 import com.hospital.medical.entity.Diagnostic;
 import com.hospital.medical.entity.MedicalRecord;
 import com.hospital.medical.exception.MedicalRecordNotFoundException;
 import com.hospital.medical.service.MedicalRecordService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Contrôleur REST pour les dossiers médicaux.
+ *
+ * Les lectures d'un dossier renvoient un ETag dérivé de sa version. Avec If-None-Match,
+ * seule la version est lue en base : 304 sans corps si le dossier n'a pas changé.
  */
 @RestController
 @RequestMapping("/api/medical-records")
@@ -21,18 +34,43 @@ import java.util.List;
 public class MedicalRecordController {
 
     private final MedicalRecordService medicalRecordService;
+    private final ObjectMapper objectMapper;
 
     /** GET /api/medical-records - Tous les dossiers */
     @GetMapping
-    public ResponseEntity<List<MedicalRecord>> getAllRecords() {
+    public ResponseEntity<List<MedicalRecordView>> getAllRecords() {
         return ResponseEntity.ok(medicalRecordService.getAllRecords());
     }
 
+    /** GET /api/medical-records/page?cursor=...&size=100 - Page de dossiers (pagination par curseur) */
+    @GetMapping("/page")
+    public ResponseEntity<?> getRecordsPage(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "100") int size) {
+        try {
+            return ResponseEntity.ok(medicalRecordService.getRecordsPage(cursor, Math.max(1, Math.min(size, 1000))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /** GET /api/medical-records/stream - Tous les dossiers en NDJSON (un objet JSON par ligne) */
+    @GetMapping(value = "/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public void streamAllRecords(HttpServletResponse response) throws IOException {
+        NdjsonWriter writer = NdjsonWriter.open(response, objectMapper);
+        medicalRecordService.streamAllRecords(writer::writeLine);
+        writer.flush();
+    }
+
     /** GET /api/medical-records/{id} - Un dossier par son ID */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getRecordById(@PathVariable Long id) {
+    public ResponseEntity<?> getRecordById(@PathVariable Long id, WebRequest request) {
+        Optional<ResponseEntity<?>> notModified = checkNotModified(request, () -> medicalRecordService.getRecordVersion(id));
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
         try {
-            return ResponseEntity.ok(medicalRecordService.getRecordById(id));
+            MedicalRecordView record = medicalRecordService.getRecordById(id);
+            return ResponseEntity.ok().eTag(etagOf(record.version())).body(record);
         } catch (MedicalRecordNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -40,9 +78,15 @@ public class MedicalRecordController {
 
     /** GET /api/medical-records/patient/{patientId} - Dossier d'un patient */
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<?> getRecordByPatientId(@PathVariable Long patientId) {
+    public ResponseEntity<?> getRecordByPatientId(@PathVariable Long patientId, WebRequest request) {
+        Optional<ResponseEntity<?>> notModified =
+                checkNotModified(request, () -> medicalRecordService.getRecordVersionByPatientId(patientId));
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
         try {
-            return ResponseEntity.ok(medicalRecordService.getRecordByPatientId(patientId));
+            MedicalRecordView record = medicalRecordService.getRecordByPatientId(patientId);
+            return ResponseEntity.ok().eTag(etagOf(record.version())).body(record);
         } catch (MedicalRecordNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -55,7 +99,7 @@ public class MedicalRecordController {
             return ResponseEntity.status(HttpStatus.CREATED).body(medicalRecordService.createMedicalRecord(record));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (RuntimeException e) {
+        } catch (PatientServiceUnavailableException e) {
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
     }
@@ -72,13 +116,43 @@ public class MedicalRecordController {
         }
     }
 
-    /** GET /api/medical-records/{id}/diagnostics - Historique des diagnostics */
+    /**
+     * GET /api/medical-records/{id}/diagnostics - Historique des diagnostics.
+     * ETag : version du dossier, lue avant les diagnostics (un ETag n'est jamais plus récent que le contenu).
+     */
     @GetMapping("/{id}/diagnostics")
-    public ResponseEntity<?> getDiagnostics(@PathVariable Long id) {
+    public ResponseEntity<?> getDiagnostics(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = medicalRecordService.getRecordVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = etagOf(version.get());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         try {
-            return ResponseEntity.ok(medicalRecordService.getDiagnosticsByDossierId(id));
+            return ResponseEntity.ok().eTag(etag).body(medicalRecordService.getDiagnosticsByDossierId(id));
         } catch (MedicalRecordNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Réponse 304 si l'If-None-Match de la requête correspond à la version courante ;
+     * la version n'est lue que si la requête est conditionnelle.
+     */
+    private static Optional<ResponseEntity<?>> checkNotModified(WebRequest request, Supplier<Optional<Long>> currentVersion) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return Optional.empty();
+        }
+        return currentVersion.get()
+                .map(MedicalRecordController::etagOf)
+                .filter(request::checkNotModified)  // positionne le statut 304 et l'ETag de la réponse
+                .map(etag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+    }
+
+    // ETag fort dérivé de la version JPA du dossier : "3"
+    private static String etagOf(Long version) {
+        return "\"" + version + "\"";
+    }
 }
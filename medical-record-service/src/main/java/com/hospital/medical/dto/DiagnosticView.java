@@ -0,0 +1,17 @@
+package com.hospital.medical.dto;
+
+import com.hospital.medical.entity.Diagnostic;
+
+import java.time.LocalDate;
+
+/**
+ * Modèle de lecture d'un diagnostic (réponse JSON), détaché de l'entité JPA.
+ */
+public record DiagnosticView(Long id, String titre, String description, LocalDate date,
+                             String medecin, String traitement) {
+
+    public static DiagnosticView from(Diagnostic diagnostic) {
+        return new DiagnosticView(diagnostic.getId(), diagnostic.getTitre(), diagnostic.getDescription(),
+                diagnostic.getDate(), diagnostic.getMedecin(), diagnostic.getTraitement());
+    }
+}
@@ -0,0 +1,24 @@
+package com.hospital.medical.dto;
+
+import com.hospital.medical.entity.MedicalRecord;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Modèle de lecture d'un dossier médical avec ses diagnostics.
+ *
+ * Construit dans la transaction à partir d'un dossier chargé avec ses diagnostics
+ * (fetch join, ou cache de second niveau) : la sérialisation JSON ne déclenche plus aucune requête.
+ * version : version JPA du dossier, utilisée comme ETag.
+ */
+public record MedicalRecordView(Long id, Long patientId, LocalDate dateCreation, String groupeSanguin,
+                                String allergies, String antecedentsMedicaux, List<DiagnosticView> diagnostics,
+                                Long version) {
+
+    public static MedicalRecordView from(MedicalRecord record) {
+        return new MedicalRecordView(record.getId(), record.getPatientId(), record.getDateCreation(),
+                record.getGroupeSanguin(), record.getAllergies(), record.getAntecedentsMedicaux(),
+                record.getDiagnostics().stream().map(DiagnosticView::from).toList(), record.getVersion());
+    }
+}
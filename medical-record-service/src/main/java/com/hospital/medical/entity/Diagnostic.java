@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
@@ -14,7 +16,12 @@ import java.time.LocalDate;
  * Appartient toujours à un MedicalRecord (relation Many-to-One).
  */
 @Entity
-@Table(name = "diagnostics")
+@Table(name = "diagnostics", indexes = {
+    // Diagnostics d'un dossier (chargement des dossiers et de leurs diagnostics)
+    @Index(name = "idx_diagnostics_dossier", columnList = "dossier_medical_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
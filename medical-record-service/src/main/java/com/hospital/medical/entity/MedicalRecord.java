@@ -1,10 +1,13 @@
 package com.hospital.medical.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -14,8 +17,12 @@ import java.util.List;
  * Entité Dossier Médical.
  * Un dossier contient l'historique des diagnostics d'un patient.
  * La relation avec Patient est gérée uniquement par patientId (architecture microservices).
+ *
+ * Le dossier, la liste de ses diagnostics et les diagnostics sont dans le cache de second niveau.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "medical_records")
 @Data
 @NoArgsConstructor
@@ -46,7 +53,18 @@ public class MedicalRecord {
      * Liste des diagnostics associés à ce dossier.
      * CascadeType.ALL : les diagnostics sont sauvegardés/supprimés avec le dossier.
      * orphanRemoval : supprime les diagnostics qui ne référencent plus ce dossier.
+     * En cache (IDs des diagnostics) : retirée du cache après chaque ajout (MedicalRecordService.addDiagnostic).
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "dossierMedical", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Diagnostic> diagnostics = new ArrayList<>();
+
+    /**
+     * Verrouillage optimiste et ETag du dossier.
+     * Incrémentée aussi à chaque ajout de diagnostic (OPTIMISTIC_FORCE_INCREMENT) :
+     * la version couvre le dossier et son historique.
+     */
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
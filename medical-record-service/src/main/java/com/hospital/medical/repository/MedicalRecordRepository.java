@@ -1,13 +1,57 @@
 package com.hospital.medical.repository;
 
 import com.hospital.medical.entity.MedicalRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Les méthodes "WithDiagnostics" chargent les diagnostics dans la même requête (entity graph),
+ * pour éviter une requête supplémentaire par dossier à la sérialisation.
+ * Les méthodes "Version" ne lisent que la version (ETag) : elles répondent aux GET conditionnels
+ * sans charger le dossier ni ses diagnostics.
+ *
+ * Un dossier isolé est lu par findById ou findByPatientId (cache de requêtes) : le dossier
+ * et ses diagnostics viennent alors du cache de second niveau, sans requête SQL.
+ */
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<MedicalRecord> findByPatientId(Long patientId);
     boolean existsByPatientId(Long patientId);
+
+    @EntityGraph(attributePaths = "diagnostics")
+    @Query("select r from MedicalRecord r order by r.id")
+    List<MedicalRecord> findAllWithDiagnostics();
+
+    @EntityGraph(attributePaths = "diagnostics")
+    @Query("select r from MedicalRecord r where r.id in :ids order by r.id")
+    List<MedicalRecord> findWithDiagnosticsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select r.version from MedicalRecord r where r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select r.version from MedicalRecord r where r.patientId = :patientId")
+    Optional<Long> findVersionByPatientId(@Param("patientId") Long patientId);
+
+    // Dossier dont la version sera incrémentée au commit, même s'il n'est pas modifié (ajout de diagnostic)
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select r from MedicalRecord r where r.id = :id")
+    Optional<MedicalRecord> findForUpdateById(@Param("id") Long id);
+
+    // Pagination par curseur : IDs des dossiers suivants, les dossiers sont ensuite chargés par findWithDiagnosticsByIdIn
+    @Query("select r.id from MedicalRecord r where r.id > :afterId order by r.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 }
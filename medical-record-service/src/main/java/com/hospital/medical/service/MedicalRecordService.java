@@ -1,38 +1,75 @@
 package com.hospital.medical.service;
 
-import com.hospital.medical.client.PatientClient;
+import com.hospital.common.client.PatientExistenceClient;
+import com.hospital.common.client.PatientExistenceCoalescer;
+import com.hospital.common.client.PatientServiceUnavailableException;
+import com.hospital.common.web.CursorPage;
+import com.hospital.medical.dto.DiagnosticView;
+import com.hospital.medical.dto.MedicalRecordView;
 import com.hospital.medical.entity.Diagnostic;
 import com.hospital.medical.entity.MedicalRecord;
 import com.hospital.medical.exception.MedicalRecordNotFoundException;
 import com.hospital.medical.repository.DiagnosticRepository;
 import com.hospital.medical.repository.MedicalRecordRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service de gestion des dossiers médicaux.
+ *
+ * Les lectures renvoient des modèles de lecture (MedicalRecordView) construits dans la transaction,
+ * à partir de requêtes qui chargent les diagnostics en une fois : le nombre de requêtes SQL
+ * ne dépend pas du nombre de dossiers renvoyés.
+ *
+ * Un dossier isolé (par ID ou par patient) est lu dans le cache de second niveau : aucune requête
+ * SQL s'il y est, sinon deux (le dossier, puis ses diagnostics), qui le mettent en cache.
+ * Les modifications du dossier passent par l'entité : Hibernate met à jour son entrée au commit.
+ * Un ajout de diagnostic est une simple insertion (la liste des diagnostics n'est pas chargée) :
+ * le dossier et sa liste sont retirés du cache avant l'écriture et de nouveau après le commit.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MedicalRecordService {
 
+    // Dossiers chargés par requête lors du parcours complet (streaming)
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    private static final String DIAGNOSTICS_ROLE = MedicalRecord.class.getName() + ".diagnostics";
+
     private final MedicalRecordRepository medicalRecordRepository;
     private final DiagnosticRepository diagnosticRepository;
-    private final PatientClient patientClient;
+    private final PatientExistenceCoalescer patientExistenceCoalescer;  // Regroupe les appels au Patient Service
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Crée un nouveau dossier médical pour un patient.
-     * Vérifie l'existence du patient avec Circuit Breaker.
+     * Vérifie l'existence du patient avec Circuit Breaker, et Bulkhead pour limiter
+     * le nombre de créations simultanées en attente du Patient Service.
+     * Patient non vérifié (réponse de fallback) : PatientServiceUnavailableException, comptée
+     * comme un échec par le circuit breaker ; patient inexistant : IllegalArgumentException.
+     * La connexion JDBC n'est prise pour l'enregistrement qu'une fois le patient vérifié.
      */
-    @Transactional
     @CircuitBreaker(name = "patientService", fallbackMethod = "createRecordFallback")
-    public MedicalRecord createMedicalRecord(MedicalRecord record) {
+    @Bulkhead(name = "patientService")
+    public MedicalRecordView createMedicalRecord(MedicalRecord record) {
         log.info("Création du dossier médical pour patient ID: {}", record.getPatientId());
 
         // Un patient ne peut avoir qu'un seul dossier médical
@@ -41,63 +78,150 @@ public class MedicalRecordService {
         }
 
         // Vérification que le patient existe
-        boolean patientExists = patientClient.checkPatientExists(record.getPatientId())
-                .getOrDefault("exists", false);
+        boolean patientExists = PatientExistenceClient.exists(record.getPatientId(),
+                patientExistenceCoalescer.checkPatientExists(record.getPatientId()));
 
         if (!patientExists) {
             throw new IllegalArgumentException("Patient introuvable avec l'ID: " + record.getPatientId());
         }
 
-        return medicalRecordRepository.save(record);
+        return transactionTemplate.execute(status -> MedicalRecordView.from(medicalRecordRepository.save(record)));
     }
 
     /** Fallback pour createMedicalRecord */
-    public MedicalRecord createRecordFallback(MedicalRecord record, Throwable ex) {
+    public MedicalRecordView createRecordFallback(MedicalRecord record, Throwable ex) {
         log.error("[CIRCUIT BREAKER] Patient Service indisponible: {}", ex.getMessage());
-        throw new RuntimeException("Service temporairement indisponible. Réessayez plus tard.");
+        throw new PatientServiceUnavailableException("Service temporairement indisponible. Réessayez plus tard.");
+    }
+
+    /**
+     * Patient inexistant ou dossier déjà présent : erreurs de la requête, pas une panne
+     * du Patient Service, renvoyées telles quelles à l'appelant.
+     */
+    public MedicalRecordView createRecordFallback(MedicalRecord record, IllegalArgumentException ex) {
+        throw ex;
     }
 
     /**
      * Récupère le dossier médical d'un patient par son patientId.
      */
-    public MedicalRecord getRecordByPatientId(Long patientId) {
-        log.info("Récupération du dossier médical pour patient ID: {}", patientId);
+    @Transactional(readOnly = true)
+    public MedicalRecordView getRecordByPatientId(Long patientId) {
+        log.debug("Récupération du dossier médical pour patient ID: {}", patientId);
         return medicalRecordRepository.findByPatientId(patientId)
+                .map(MedicalRecordView::from)
                 .orElseThrow(() -> new MedicalRecordNotFoundException("Aucun dossier médical pour le patient ID: " + patientId));
     }
 
     /**
      * Récupère un dossier médical par son propre ID.
      */
-    public MedicalRecord getRecordById(Long id) {
+    @Transactional(readOnly = true)
+    public MedicalRecordView getRecordById(Long id) {
         return medicalRecordRepository.findById(id)
-                .orElseThrow(() -> new MedicalRecordNotFoundException("Dossier médical introuvable, ID: " + id));
+                .map(MedicalRecordView::from)
+                .orElseThrow(() -> recordNotFound(id));
+    }
+
+    /** Version courante d'un dossier (vide s'il n'existe pas), lue sans charger le dossier */
+    public Optional<Long> getRecordVersion(Long id) {
+        return medicalRecordRepository.findVersionById(id);
+    }
+
+    /** Version courante du dossier d'un patient (vide s'il n'en a pas) */
+    public Optional<Long> getRecordVersionByPatientId(Long patientId) {
+        return medicalRecordRepository.findVersionByPatientId(patientId);
     }
 
     /**
      * Ajoute un diagnostic à un dossier médical existant.
+     * La version du dossier est incrémentée : les ETags du dossier et de son historique changent.
+     * Une seule insertion, quelle que soit la taille de l'historique (la liste n'est pas chargée).
      */
     @Transactional
-    public Diagnostic addDiagnostic(Long dossierId, Diagnostic diagnostic) {
+    public DiagnosticView addDiagnostic(Long dossierId, Diagnostic diagnostic) {
         log.info("Ajout d'un diagnostic au dossier ID: {}", dossierId);
+        evictCachedRecord(dossierId);
 
-        MedicalRecord dossier = getRecordById(dossierId);
+        MedicalRecord dossier = medicalRecordRepository.findForUpdateById(dossierId)
+                .orElseThrow(() -> recordNotFound(dossierId));
         diagnostic.setDossierMedical(dossier);  // Associe le diagnostic au dossier
 
-        return diagnosticRepository.save(diagnostic);
+        return DiagnosticView.from(diagnosticRepository.save(diagnostic));
     }
 
     /**
      * Récupère tous les diagnostics d'un dossier médical.
      */
-    public List<Diagnostic> getDiagnosticsByDossierId(Long dossierId) {
-        // Vérifie que le dossier existe
-        getRecordById(dossierId);
-        return diagnosticRepository.findByDossierMedicalId(dossierId);
+    @Transactional(readOnly = true)
+    public List<DiagnosticView> getDiagnosticsByDossierId(Long dossierId) {
+        // Vérifie que le dossier existe (sans le charger)
+        if (!medicalRecordRepository.existsById(dossierId)) {
+            throw recordNotFound(dossierId);
+        }
+        return diagnosticRepository.findByDossierMedicalId(dossierId).stream()
+                .map(DiagnosticView::from)
+                .toList();
+    }
+
+    /** Récupère tous les dossiers, diagnostics compris, en une seule requête */
+    @Transactional(readOnly = true)
+    public List<MedicalRecordView> getAllRecords() {
+        return medicalRecordRepository.findAllWithDiagnostics().stream()
+                .map(MedicalRecordView::from)
+                .toList();
+    }
+
+    /** Récupère une page de dossiers triés par ID, à partir d'un curseur opaque (deux requêtes) */
+    @Transactional(readOnly = true)
+    public CursorPage<MedicalRecordView> getRecordsPage(String cursor, int size) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        List<Long> ids = medicalRecordRepository.findIdsAfter(afterId, Limit.of(size));
+        List<MedicalRecordView> records = ids.isEmpty() ? List.of()
+                : medicalRecordRepository.findWithDiagnosticsByIdIn(ids).stream().map(MedicalRecordView::from).toList();
+        String nextCursor = ids.size() < size ? null : CursorPage.encodeCursor(ids.get(ids.size() - 1));
+        return new CursorPage<>(records, nextCursor);
+    }
+
+    /**
+     * Parcourt tous les dossiers sans les charger en mémoire d'un coup.
+     * Lecture par paquets de STREAM_CHUNK_SIZE dossiers (deux requêtes par paquet),
+     * le contexte de persistance est vidé après chaque paquet.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllRecords(Consumer<MedicalRecordView> consumer) {
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = medicalRecordRepository.findIdsAfter(afterId, Limit.of(STREAM_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                medicalRecordRepository.findWithDiagnosticsByIdIn(ids).forEach(record -> consumer.accept(MedicalRecordView.from(record)));
+                entityManager.clear();
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == STREAM_CHUNK_SIZE);
+    }
+
+    /**
+     * L'incrément forcé de version (OPTIMISTIC_FORCE_INCREMENT) et l'insertion du diagnostic
+     * ne mettent à jour ni l'entrée du dossier ni sa liste de diagnostics dans le cache.
+     * Elles en sont retirées avant l'écriture (le dossier verrouillé est lu en base, pas dans le cache),
+     * puis de nouveau après le commit : une lecture concurrente a pu y remettre l'état précédent entre-temps.
+     */
+    private void evictCachedRecord(Long dossierId) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evict(MedicalRecord.class, dossierId);
+        cache.evictCollectionData(DIAGNOSTICS_ROLE, dossierId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.evict(MedicalRecord.class, dossierId);
+                cache.evictCollectionData(DIAGNOSTICS_ROLE, dossierId);
+            }
+        });
     }
 
-    /** Récupère tous les dossiers */
-    public List<MedicalRecord> getAllRecords() {
-        return medicalRecordRepository.findAll();
+    private MedicalRecordNotFoundException recordNotFound(Long id) {
+        return new MedicalRecordNotFoundException("Dossier médical introuvable, ID: " + id);
     }
 }
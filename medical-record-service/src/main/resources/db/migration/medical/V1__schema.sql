@@ -0,0 +1,30 @@
+-- Schéma initial du Medical Record Service (profil persistent)
+-- Doit rester conforme aux entités JPA : Hibernate le vérifie au démarrage (ddl-auto: validate)
+
+create table medical_records (
+    id                   bigint generated by default as identity,
+    patient_id           bigint not null,
+    date_creation        date   not null,
+    groupe_sanguin       varchar(255),
+    allergies            varchar(255),
+    antecedents_medicaux TEXT,
+    version              bigint,
+    primary key (id),
+    -- Un seul dossier par patient ; sert aussi à la recherche par patient
+    constraint uk_medical_records_patient unique (patient_id)
+);
+
+create table diagnostics (
+    id                 bigint generated by default as identity,
+    dossier_medical_id bigint       not null,
+    titre              varchar(255) not null,
+    description        TEXT,
+    date               date         not null,
+    medecin            varchar(255),
+    traitement         varchar(255),
+    primary key (id),
+    constraint fk_diagnostics_dossier foreign key (dossier_medical_id) references medical_records (id)
+);
+
+-- Diagnostics d'un dossier (chargement des dossiers et de leurs diagnostics)
+create index idx_diagnostics_dossier on diagnostics (dossier_medical_id);
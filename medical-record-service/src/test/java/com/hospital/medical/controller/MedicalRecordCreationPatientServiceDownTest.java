@@ -0,0 +1,49 @@
+package com.hospital.medical.controller;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Patient Service injoignable : le fallback du client Feign répond "fallback": true.
+ * La création de dossier doit répondre 503 (indisponible), pas 400 (patient inexistant),
+ * et l'échec doit être compté par le circuit breaker patientService.
+ */
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        // Aucun serveur sur ce port : connexion refusée, fallback du client Feign
+        "spring.cloud.discovery.client.simple.instances.patient-service[0].uri=http://localhost:1"
+})
+@AutoConfigureMockMvc
+class MedicalRecordCreationPatientServiceDownTest {
+
+    private static final String RECORD = """
+            {"patientId": 1, "groupeSanguin": "A+"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Test
+    void creationIsUnavailableWhenThePatientCannotBeVerified() throws Exception {
+        mockMvc.perform(post("/api/medical-records").contentType(MediaType.APPLICATION_JSON).content(RECORD))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Service temporairement indisponible")));
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("patientService").getMetrics().getNumberOfFailedCalls())
+                .isPositive();
+    }
+}
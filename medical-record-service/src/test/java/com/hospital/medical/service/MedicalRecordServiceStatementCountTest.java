@@ -0,0 +1,101 @@
+package com.hospital.medical.service;
+
+import com.hospital.common.client.PatientExistenceCoalescer;
+import com.hospital.common.web.CursorPage;
+import com.hospital.medical.dto.DiagnosticView;
+import com.hospital.medical.dto.MedicalRecordView;
+import com.hospital.medical.entity.Diagnostic;
+import com.hospital.medical.entity.MedicalRecord;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nombre de requêtes SQL des lectures de dossiers et de diagnostics (statistiques Hibernate) :
+ * il ne dépend pas du nombre de dossiers, les diagnostics ne sont pas chargés dossier par dossier.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import(MedicalRecordService.class)
+class MedicalRecordServiceStatementCountTest {
+
+    private static final int RECORDS = 5;
+    private static final int DIAGNOSTICS_PER_RECORD = 3;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private PatientExistenceCoalescer patientExistenceCoalescer;
+
+    private Statistics statistics;
+    private Long firstRecordId;
+
+    @BeforeEach
+    void createRecords() {
+        for (long patientId = 1; patientId <= RECORDS; patientId++) {
+            MedicalRecord record = new MedicalRecord();
+            record.setPatientId(patientId);
+            record.setGroupeSanguin("A+");
+            for (int i = 1; i <= DIAGNOSTICS_PER_RECORD; i++) {
+                Diagnostic diagnostic = new Diagnostic();
+                diagnostic.setTitre("Diagnostic " + i);
+                diagnostic.setMedecin("Dr Martin");
+                diagnostic.setDossierMedical(record);
+                record.getDiagnostics().add(diagnostic);
+            }
+            entityManager.persist(record);
+            if (firstRecordId == null) {
+                firstRecordId = record.getId();
+            }
+        }
+        // Lectures suivantes depuis la base, pas depuis le contexte de persistance
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void allRecordsAreReadWithTheirDiagnosticsInOneStatement() {
+        List<MedicalRecordView> records = medicalRecordService.getAllRecords();
+
+        assertThat(records).hasSize(RECORDS)
+                .allSatisfy(record -> assertThat(record.diagnostics()).hasSize(DIAGNOSTICS_PER_RECORD));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void aPageOfRecordsIsReadInTwoStatements() {
+        CursorPage<MedicalRecordView> page = medicalRecordService.getRecordsPage(null, 3);
+
+        assertThat(page.items()).hasSize(3)
+                .allSatisfy(record -> assertThat(record.diagnostics()).hasSize(DIAGNOSTICS_PER_RECORD));
+        // IDs de la page, puis dossiers et diagnostics
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void diagnosticsOfARecordAreReadWithoutLoadingTheRecord() {
+        List<DiagnosticView> diagnostics = medicalRecordService.getDiagnosticsByDossierId(firstRecordId);
+
+        assertThat(diagnostics).hasSize(DIAGNOSTICS_PER_RECORD);
+        // Existence du dossier, puis diagnostics
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(DIAGNOSTICS_PER_RECORD);
+    }
+}
@@ -7,8 +7,14 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 /**
  * Microservice Patient.
  * @EnableDiscoveryClient : s'enregistre automatiquement auprès d'Eureka au démarrage.
+ * scanBasePackages : composants partagés utilisés par le service (module common).
  */
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {
+        "com.hospital.patient",
+        "com.hospital.common.admission",
+        "com.hospital.common.datasource",
+        "com.hospital.common.persistence"
+})
 @EnableDiscoveryClient
 public class PatientServiceApplication {
     public static void main(String[] args) {
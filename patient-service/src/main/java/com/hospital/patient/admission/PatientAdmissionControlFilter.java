@@ -0,0 +1,38 @@
+package com.hospital.patient.admission;
+
+import com.hospital.common.admission.AdaptiveConcurrencyLimiter;
+import com.hospital.common.admission.AdaptiveConcurrencyLimiter.Priority;
+import com.hospital.common.admission.AdmissionControlFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contrôle d'admission devant /api/patients/**.
+ *
+ * Priorités :
+ * - CRITICAL : GET /{id}/exists, POST /exists et GET /events, appelés par les autres services ;
+ * - BULK : GET /api/patients, /page et /stream ;
+ * - NORMAL : tout le reste.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class PatientAdmissionControlFilter extends AdmissionControlFilter {
+
+    public PatientAdmissionControlFilter(AdaptiveConcurrencyLimiter limiter) {
+        super(limiter, "/api/patients");
+    }
+
+    @Override
+    protected Priority classify(HttpServletRequest request, String path) {
+        boolean get = "GET".equals(request.getMethod());
+        if (path.endsWith("/exists") || (get && path.equals("/events"))) {
+            return Priority.CRITICAL;
+        }
+        if (get && (path.isEmpty() || path.equals("/") || path.equals("/page") || path.equals("/stream"))) {
+            return Priority.BULK;
+        }
+        return Priority.NORMAL;
+    }
+}
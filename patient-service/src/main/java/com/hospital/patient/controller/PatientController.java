@@ -1,17 +1,28 @@
 package com.hospital.patient.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.common.web.NdjsonWriter;
 import com.hospital.patient.entity.Patient;
+import com.hospital.patient.event.PatientEventBatch;
+import com.hospital.patient.event.PatientEventLog;
 import com.hospital.patient.exception.PatientNotFoundException;
 import com.hospital.patient.service.PatientService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Contrôleur REST Patient - expose les endpoints de l'API.
@@ -23,7 +34,12 @@ import java.util.Map;
 @Slf4j
 public class PatientController {
 
+    // Nombre maximum d'IDs acceptés par POST /api/patients/exists
+    private static final int MAX_EXISTS_BATCH = 10_000;
+
     private final PatientService patientService;
+    private final PatientEventLog patientEventLog;
+    private final ObjectMapper objectMapper;
 
     /**
      * GET /api/patients - Retourne tous les patients
@@ -34,12 +50,61 @@ public class PatientController {
     }
 
     /**
-     * GET /api/patients/{id} - Retourne un patient par son ID
+     * GET /api/patients/page?cursor=...&size=100 - Page de patients (pagination par curseur)
+     * Le champ nextCursor de la réponse sert à demander la page suivante.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getPatientsPage(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "100") int size) {
+        try {
+            return ResponseEntity.ok(patientService.getPatientsPage(cursor, Math.max(1, Math.min(size, 1000))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/patients/stream - Tous les patients en NDJSON (un objet JSON par ligne).
+     * Les lignes sont écrites au fil de la lecture, sans charger la table en mémoire.
+     */
+    @GetMapping(value = "/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public void streamAllPatients(HttpServletResponse response) throws IOException {
+        NdjsonWriter writer = NdjsonWriter.open(response, objectMapper);
+        patientService.streamAllPatients(writer::writeLine);
+        writer.flush();
+    }
+
+    /**
+     * GET /api/patients/search?q=dupont jean&page=0&size=20 - Recherche de patients
+     * Préfixe sur nom/prénom (sans tenir compte des accents), sous-chaîne sur email/téléphone.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPatients(@RequestParam String q,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank() || page < 0) {
+            return ResponseEntity.badRequest().body("Paramètres de recherche invalides");
+        }
+        return ResponseEntity.ok(patientService.searchPatients(q, page, Math.max(1, Math.min(size, 100))));
+    }
+
+    /**
+     * GET /api/patients/{id} - Retourne un patient par son ID.
+     * Réponse avec ETag (version du patient). Avec If-None-Match, seule la version est lue :
+     * 304 sans corps si le patient n'a pas changé.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Patient> getPatientById(@PathVariable Long id) {
+    public ResponseEntity<Patient> getPatientById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> etag = patientService.getPatientVersion(id).map(PatientController::etagOf);
+            // checkNotModified positionne le statut 304 et l'ETag de la réponse
+            if (etag.isPresent() && request.checkNotModified(etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+        }
         try {
-            return ResponseEntity.ok(patientService.getPatientById(id));
+            Patient patient = patientService.getPatientById(id);
+            return ResponseEntity.ok().eTag(etagOf(patient.getVersion())).body(patient);
         } catch (PatientNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -56,15 +121,21 @@ public class PatientController {
     }
 
     /**
-     * PUT /api/patients/{id} - Met à jour un patient existant
+     * PUT /api/patients/{id} - Met à jour un patient existant.
+     * If-Match (ETag lu précédemment) : 412 si le patient a été modifié depuis.
+     * Sans If-Match, une modification concurrente renvoie 409.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Patient> updatePatient(@PathVariable Long id,
-                                                  @Valid @RequestBody Patient patient) {
+                                                  @Valid @RequestBody Patient patient,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return ResponseEntity.ok(patientService.updatePatient(id, patient));
+            Patient updated = patientService.updatePatient(id, patient, versionOf(ifMatch));
+            return ResponseEntity.ok().eTag(etagOf(updated.getVersion())).body(updated);
         } catch (PatientNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         }
     }
 
@@ -90,4 +161,46 @@ public class PatientController {
         boolean exists = patientService.patientExists(id);
         return ResponseEntity.ok(Map.of("exists", exists));
     }
+
+    /**
+     * POST /api/patients/exists - Vérifie l'existence de plusieurs patients.
+     * Corps : liste d'IDs. Réponse : { "id": true|false, ... }
+     * Endpoint interne utilisé pour les imports et par les clients qui regroupent leurs appels.
+     */
+    @PostMapping("/exists")
+    public ResponseEntity<?> checkPatientsExist(@RequestBody List<Long> ids) {
+        if (ids.size() > MAX_EXISTS_BATCH) {
+            return ResponseEntity.badRequest().body("Trop d'IDs dans la requête (maximum " + MAX_EXISTS_BATCH + ")");
+        }
+        return ResponseEntity.ok(patientService.patientsExist(ids.stream().filter(Objects::nonNull).toList()));
+    }
+
+    /**
+     * GET /api/patients/events?after={sequence} - Journal des créations/suppressions.
+     * Endpoint interne : permet aux autres services d'invalider leur cache d'existence.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<PatientEventBatch> getEvents(@RequestParam(required = false) Long after,
+                                                       @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(patientEventLog.readAfter(after, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    // ETag fort dérivé de la version JPA : "3"
+    private static String etagOf(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Version attendue d'après If-Match ("3" ou W/"3") ; null si absent ou "*", -1 si illisible
+    private static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        value = value.startsWith("W/") ? value.substring(2) : value;
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package com.hospital.patient.dto;
+
+import java.util.List;
+
+/**
+ * Page de résultats de recherche, numérotée à partir de 0.
+ * hasNext : au moins un résultat au-delà de cette page (la recherche s'arrête là, sans compter le total).
+ */
+public record SearchPage<T>(List<T> items, boolean hasNext, int page, int size) {
+}
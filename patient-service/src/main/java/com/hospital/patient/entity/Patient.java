@@ -1,19 +1,27 @@
 package com.hospital.patient.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 /**
  * Entité Patient - représente un patient dans la base de données.
  * Contient les informations administratives uniquement.
+ *
+ * Gardée dans le cache de second niveau (lue bien plus souvent que modifiée) :
+ * findById ne va en base qu'au premier accès, puis après chaque modification ou suppression.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "patients")
 @Data                  // Génère getters, setters, equals, hashCode, toString
 @NoArgsConstructor     // Constructeur sans argument (requis par JPA)
@@ -44,4 +52,9 @@ public class Patient {
 
     @Column
     private String adresse;
+
+    // Verrouillage optimiste : incrémentée à chaque modification, sert aussi d'ETag (GET /api/patients/{id})
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
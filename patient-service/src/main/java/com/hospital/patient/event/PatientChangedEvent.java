@@ -0,0 +1,18 @@
+package com.hospital.patient.event;
+
+import com.hospital.patient.entity.Patient;
+
+/**
+ * Événement applicatif publié par PatientService à chaque création/modification/suppression.
+ * Il est traité une fois la transaction validée (journal d'événements, index de recherche).
+ *
+ * patient : état du patient après l'opération (null pour une suppression).
+ */
+public record PatientChangedEvent(Type type, Long patientId, Patient patient) {
+
+    public enum Type {
+        CREATED,   // Nouveau patient
+        UPDATED,   // Informations modifiées
+        DELETED    // Patient supprimé
+    }
+}
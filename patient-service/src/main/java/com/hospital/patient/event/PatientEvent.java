@@ -0,0 +1,8 @@
+package com.hospital.patient.event;
+
+/**
+ * Entrée du journal d'événements exposé aux autres microservices.
+ * sequence : position strictement croissante dans le journal de cette instance.
+ */
+public record PatientEvent(long sequence, PatientChangedEvent.Type type, Long patientId) {
+}
@@ -0,0 +1,14 @@
+package com.hospital.patient.event;
+
+import java.util.List;
+
+/**
+ * Réponse de GET /api/patients/events.
+ *
+ * - instanceId : identifiant de cette instance (change à chaque redémarrage)
+ * - lastSequence : dernière séquence publiée, à renvoyer comme curseur "after"
+ * - reset : true si le curseur du client n'est plus exploitable (événements
+ *   perdus ou redémarrage) ; le client doit alors vider ses caches
+ */
+public record PatientEventBatch(String instanceId, long lastSequence, boolean reset, List<PatientEvent> events) {
+}
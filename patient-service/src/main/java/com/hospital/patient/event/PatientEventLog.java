@@ -0,0 +1,69 @@
+package com.hospital.patient.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Journal borné (buffer circulaire) des créations/suppressions de patients.
+ * Les modifications n'y figurent pas : elles ne changent pas l'existence d'un patient.
+ *
+ * Les autres microservices le lisent via GET /api/patients/events pour
+ * invalider leurs caches locaux d'existence des patients, sans broker externe.
+ * Les événements ne sont consignés qu'après le commit de la transaction :
+ * un rollback ne publie donc rien.
+ */
+@Component
+@Slf4j
+public class PatientEventLog {
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final PatientEvent[] buffer;
+    private long lastSequence = 0;
+
+    public PatientEventLog(@Value("${patient.events.capacity:10000}") int capacity) {
+        this.buffer = new PatientEvent[capacity];
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.type() != PatientChangedEvent.Type.UPDATED) {
+            append(event.type(), event.patientId());
+        }
+    }
+
+    synchronized void append(PatientChangedEvent.Type type, Long patientId) {
+        lastSequence++;
+        buffer[(int) (lastSequence % buffer.length)] = new PatientEvent(lastSequence, type, patientId);
+        log.debug("Événement patient #{} : {} ID {}", lastSequence, type, patientId);
+    }
+
+    /**
+     * Lit les événements postérieurs à "after".
+     * Sans curseur (after null), renvoie seulement la position courante du journal.
+     */
+    public synchronized PatientEventBatch readAfter(Long after, int limit) {
+        if (after == null) {
+            return new PatientEventBatch(instanceId, lastSequence, false, List.of());
+        }
+
+        long oldestAvailable = Math.max(1, lastSequence - buffer.length + 1);
+        // Curseur en avance (redémarrage) ou trop ancien (événements écrasés)
+        if (after > lastSequence || after < oldestAvailable - 1) {
+            return new PatientEventBatch(instanceId, lastSequence, true, List.of());
+        }
+
+        long end = Math.min(lastSequence, after + limit);
+        List<PatientEvent> events = new ArrayList<>((int) (end - after));
+        for (long seq = after + 1; seq <= end; seq++) {
+            events.add(buffer[(int) (seq % buffer.length)]);
+        }
+        return new PatientEventBatch(instanceId, end, false, events);
+    }
+}
@@ -0,0 +1,25 @@
+package com.hospital.patient.metrics;
+
+import com.hospital.patient.search.PatientSearchIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compteurs propres au Patient Service, exposés sur /actuator/prometheus :
+ * taille de l'index de recherche. Ceux du contrôle d'admission sont dans AdmissionMetrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientServiceMetrics implements MeterBinder {
+
+    private final PatientSearchIndex searchIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("patient.search.index.size", searchIndex, PatientSearchIndex::size)
+                .register(registry);
+    }
+}
@@ -1,10 +1,19 @@
 package com.hospital.patient.repository;
 
 import com.hospital.patient.entity.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository Patient - couche d'accès aux données.
@@ -16,6 +25,26 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     // Rechercher un patient par email (utile pour éviter les doublons)
     Optional<Patient> findByEmail(String email);
 
-    // Vérifier si un email existe déjà
+    // Vérifier si un email existe déjà ; résultat en cache jusqu'à la prochaine modification de la table patients
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
+
+    // Version seule (ETag) : répond aux GET conditionnels sans charger le patient
+    @Query("select p.version from Patient p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Parmi les IDs fournis, ceux qui existent (une seule requête IN au lieu de N existsById)
+    @Query("select p.id from Patient p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Pagination par curseur : patients d'ID strictement supérieur, triés par ID
+    List<Patient> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Parcours complet en flux, lu par paquets de 500 lignes (à consommer dans une transaction)
+    @Query("select p from Patient p order by p.id")
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Patient> streamAllByOrderByIdAsc();
 }
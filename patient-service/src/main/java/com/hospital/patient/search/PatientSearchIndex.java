@@ -0,0 +1,292 @@
+package com.hospital.patient.search;
+
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.event.PatientChangedEvent;
+import com.hospital.patient.repository.PatientRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche des patients, en mémoire.
+ *
+ * - nom / prénom : index inversé des mots normalisés (sans accents, en minuscules),
+ *   trié pour la recherche par préfixe ("dup" trouve "Dupont", "elo" trouve "Éloïse").
+ * - email / téléphone : index de trigrammes pour la recherche par sous-chaîne
+ *   (3 caractères minimum ; le téléphone est comparé sur ses seuls chiffres).
+ *
+ * Chaque terme renvoie la liste triée des IDs qui le contiennent : une recherche parcourt
+ * ces listes par ID croissant (union des préfixes, intersection des mots) et s'arrête
+ * au nombre de résultats demandé.
+ *
+ * Construit au démarrage depuis la base puis tenu à jour après chaque commit
+ * de PatientService (création, modification, suppression).
+ */
+@Component
+@Slf4j
+public class PatientSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("\\+?[\\d\\s.()-]*\\d[\\d\\s.()-]*");
+
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    // Recherches en lecture ; modifications et remplacement de l'index en écriture
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+    // Changements reçus pendant une reconstruction, rejoués sur le nouvel index ; null hors reconstruction
+    private List<PatientChangedEvent> pendingChanges;
+
+    public PatientSearchIndex(PatientRepository patientRepository, TransactionTemplate transactionTemplate,
+                              EntityManager entityManager) {
+        this.patientRepository = patientRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Construit l'index à partir de tous les patients existants.
+     *
+     * Le nouvel index est construit à part puis remplace l'index courant ; les changements validés
+     * pendant la lecture sont appliqués à l'index courant et rejoués sur le nouveau avant le remplacement.
+     * Chaque patient est détaché une fois indexé : avec une base persistante déjà remplie,
+     * seul l'index reste en mémoire, pas les entités lues.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        IndexData rebuilt = new IndexData();
+        write(() -> pendingChanges = new ArrayList<>());
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (var patients = patientRepository.streamAllByOrderByIdAsc()) {
+                    patients.forEach(patient -> {
+                        rebuilt.index(patient);
+                        entityManager.detach(patient);
+                    });
+                }
+            });
+            write(() -> {
+                pendingChanges.forEach(rebuilt::apply);
+                log.info("Index de recherche patients construit : {} patient(s), {} changement(s) rejoué(s)",
+                        rebuilt.documents.size(), pendingChanges.size());
+                data = rebuilt;
+            });
+        } finally {
+            write(() -> pendingChanges = null);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        write(() -> {
+            data.apply(event);
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+        });
+    }
+
+    /**
+     * Recherche les patients correspondant à tous les mots de la requête.
+     * Un mot correspond s'il est le début d'un mot du nom/prénom,
+     * ou une partie de l'email ou du numéro de téléphone.
+     *
+     * @return au plus limit IDs, les plus petits, triés par ordre croissant
+     */
+    public List<Long> search(String query, int limit) {
+        // Un numéro saisi avec des espaces ("06 12 34") est traité comme un seul mot
+        String trimmed = query.trim();
+        String[] words = PHONE_QUERY.matcher(trimmed).matches()
+                ? new String[]{digitsOf(trimmed)}
+                : trimmed.split("\\s+");
+        List<String> tokens = Arrays.stream(words)
+                .map(PatientSearchIndex::normalize)
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            PostingIterator matches = PostingIterator.intersection(tokens.stream().map(this::lookup).toList());
+            List<Long> ids = new ArrayList<>();
+            for (long id = matches.advance(Long.MIN_VALUE); id != PostingIterator.NO_MORE && ids.size() < limit;
+                 id = matches.advance(id + 1)) {
+                ids.add(id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private PostingIterator lookup(String token) {
+        List<PostingIterator> alternatives = new ArrayList<>();
+
+        // Nom / prénom : chaque partie du mot ("jean-pierre" → "jean", "pierre") doit être un préfixe
+        List<String> parts = nameTermsOf(token);
+        if (!parts.isEmpty()) {
+            alternatives.add(PostingIterator.intersection(parts.stream()
+                    .map(part -> PostingIterator.union(data.nameTerms.subMap(part, true, part + Character.MAX_VALUE, false)
+                            .values().stream().map(PostingIterator::of).toList()))
+                    .toList()));
+        }
+
+        // Email / téléphone : intersection des trigrammes puis vérification de la sous-chaîne
+        alternatives.add(contactMatches(token));
+        String digits = digitsOf(token);
+        if (!digits.equals(token) && digits.length() == token.replaceAll("[\\s.()+-]", "").length()) {
+            alternatives.add(contactMatches(digits));
+        }
+        return PostingIterator.union(alternatives);
+    }
+
+    private PostingIterator contactMatches(String fragment) {
+        if (fragment.length() < 3) {
+            return PostingIterator.empty();
+        }
+        List<PostingIterator> grams = new ArrayList<>();
+        for (String gram : trigramsOf(fragment)) {
+            PostingList posting = data.contactTrigrams.get(gram);
+            if (posting == null) {
+                return PostingIterator.empty();
+            }
+            grams.add(PostingIterator.of(posting));
+        }
+        return PostingIterator.filter(PostingIterator.intersection(grams), id -> {
+            IndexedPatient document = data.documents.get(id);
+            return document != null && (document.email().contains(fragment) || document.phone().contains(fragment));
+        });
+    }
+
+    /** Minuscules, sans accents. */
+    static String normalize(String value) {
+        return DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> nameTermsOf(String value) {
+        return Arrays.stream(NON_ALPHANUMERIC.split(normalize(value)))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static String digitsOf(String value) {
+        return NON_DIGIT.matcher(value).replaceAll("");
+    }
+
+    private static Set<String> trigramsOf(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            grams.add(value.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Contenu de l'index : documents et listes d'IDs par terme.
+     */
+    private static final class IndexData {
+
+        private final Map<Long, IndexedPatient> documents = new HashMap<>();
+        private final NavigableMap<String, PostingList> nameTerms = new TreeMap<>();
+        private final Map<String, PostingList> contactTrigrams = new HashMap<>();
+
+        void apply(PatientChangedEvent change) {
+            if (change.type() == PatientChangedEvent.Type.DELETED) {
+                remove(change.patientId());
+            } else {
+                index(change.patient());
+            }
+        }
+
+        /** Ajoute ou remplace un patient. */
+        void index(Patient patient) {
+            remove(patient.getId());
+
+            IndexedPatient document = new IndexedPatient(
+                    nameTermsOf(patient.getNom() + " " + patient.getPrenom()),
+                    patient.getEmail() == null ? "" : normalize(patient.getEmail()),
+                    patient.getNumeroDeTelephone() == null ? "" : digitsOf(patient.getNumeroDeTelephone()));
+            documents.put(patient.getId(), document);
+
+            document.nameTerms().forEach(term -> nameTerms.computeIfAbsent(term, k -> new PostingList()).add(patient.getId()));
+            document.contactTrigrams().forEach(gram -> contactTrigrams.computeIfAbsent(gram, k -> new PostingList()).add(patient.getId()));
+        }
+
+        void remove(Long patientId) {
+            IndexedPatient document = documents.remove(patientId);
+            if (document == null) {
+                return;
+            }
+            document.nameTerms().forEach(term -> removePosting(nameTerms, term, patientId));
+            document.contactTrigrams().forEach(gram -> removePosting(contactTrigrams, gram, patientId));
+        }
+
+        private static void removePosting(Map<String, PostingList> postings, String key, Long patientId) {
+            postings.computeIfPresent(key, (k, ids) -> {
+                ids.remove(patientId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Données normalisées d'un patient, telles qu'indexées.
+     */
+    private record IndexedPatient(List<String> nameTerms, String email, String phone) {
+
+        Collection<String> contactTrigrams() {
+            Set<String> grams = new HashSet<>(trigramsOf(email));
+            grams.addAll(trigramsOf(phone));
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.hospital.patient.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Parcours par ID croissant des patients correspondant à une partie de la requête :
+ * une liste de l'index, ou une union / intersection / vérification d'autres parcours.
+ *
+ * La recherche avance les parcours jusqu'au nombre de résultats demandé, sans matérialiser
+ * l'ensemble des correspondances.
+ */
+interface PostingIterator {
+
+    long NO_MORE = Long.MAX_VALUE;
+
+    /**
+     * Premier ID >= target, NO_MORE si aucun.
+     * Les cibles sont croissantes d'un appel à l'autre ; une cible déjà dépassée renvoie l'ID courant.
+     */
+    long advance(long target);
+
+    /** Nombre maximal d'IDs parcourus : le parcours le moins coûteux mène l'intersection. */
+    long cost();
+
+    static PostingIterator empty() {
+        return new PostingIterator() {
+            @Override
+            public long advance(long target) {
+                return NO_MORE;
+            }
+
+            @Override
+            public long cost() {
+                return 0;
+            }
+        };
+    }
+
+    static PostingIterator of(PostingList postings) {
+        return new PostingIterator() {
+            private int position;
+
+            @Override
+            public long advance(long target) {
+                position = postings.seek(target, position);
+                return position < postings.size() ? postings.get(position) : NO_MORE;
+            }
+
+            @Override
+            public long cost() {
+                return postings.size();
+            }
+        };
+    }
+
+    /** IDs présents dans au moins un des parcours. */
+    static PostingIterator union(List<PostingIterator> iterators) {
+        if (iterators.size() <= 1) {
+            return iterators.isEmpty() ? empty() : iterators.get(0);
+        }
+        return new Union(iterators);
+    }
+
+    /** IDs présents dans tous les parcours. */
+    static PostingIterator intersection(List<PostingIterator> iterators) {
+        if (iterators.size() <= 1) {
+            return iterators.isEmpty() ? empty() : iterators.get(0);
+        }
+        return new Intersection(iterators);
+    }
+
+    /** IDs du parcours qui satisfont la vérification. */
+    static PostingIterator filter(PostingIterator iterator, LongPredicate predicate) {
+        return new PostingIterator() {
+            private boolean started;
+            private long current;
+
+            @Override
+            public long advance(long target) {
+                if (started && current >= target) {
+                    return current;
+                }
+                long id = iterator.advance(target);
+                while (id != NO_MORE && !predicate.test(id)) {
+                    id = iterator.advance(id + 1);
+                }
+                started = true;
+                current = id;
+                return id;
+            }
+
+            @Override
+            public long cost() {
+                return iterator.cost();
+            }
+        };
+    }
+
+    /**
+     * Union : les parcours sont rangés par ID courant, seuls ceux en retard sur la cible sont avancés.
+     */
+    final class Union implements PostingIterator {
+
+        private final List<PostingIterator> iterators;
+        private final PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingLong(Cursor::current));
+        private final long cost;
+        private boolean started;
+
+        private Union(List<PostingIterator> iterators) {
+            this.iterators = iterators;
+            this.cost = iterators.stream().mapToLong(PostingIterator::cost).sum();
+        }
+
+        @Override
+        public long advance(long target) {
+            if (!started) {
+                started = true;
+                iterators.forEach(iterator -> moveTo(new Cursor(iterator), target));
+            }
+            while (!cursors.isEmpty() && cursors.peek().current < target) {
+                moveTo(cursors.poll(), target);
+            }
+            return cursors.isEmpty() ? NO_MORE : cursors.peek().current;
+        }
+
+        @Override
+        public long cost() {
+            return cost;
+        }
+
+        private void moveTo(Cursor cursor, long target) {
+            cursor.current = cursor.iterator.advance(target);
+            if (cursor.current != NO_MORE) {
+                cursors.add(cursor);
+            }
+        }
+
+        private static final class Cursor {
+            private final PostingIterator iterator;
+            private long current;
+
+            private Cursor(PostingIterator iterator) {
+                this.iterator = iterator;
+            }
+
+            private long current() {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Intersection : chaque parcours est avancé à l'ID proposé par le précédent,
+     * jusqu'à ce que tous s'accordent. Le moins coûteux propose en premier.
+     */
+    final class Intersection implements PostingIterator {
+
+        private final PostingIterator[] iterators;
+
+        private Intersection(List<PostingIterator> iterators) {
+            List<PostingIterator> byCost = new ArrayList<>(iterators);
+            byCost.sort(Comparator.comparingLong(PostingIterator::cost));
+            this.iterators = byCost.toArray(PostingIterator[]::new);
+        }
+
+        @Override
+        public long advance(long target) {
+            long candidate = target;
+            int agreeing = 0;
+            for (int i = 0; agreeing < iterators.length; i = (i + 1) % iterators.length) {
+                long id = iterators[i].advance(candidate);
+                if (id == NO_MORE) {
+                    return NO_MORE;
+                }
+                if (id == candidate) {
+                    agreeing++;
+                } else {
+                    candidate = id;
+                    agreeing = 1;
+                }
+            }
+            return candidate;
+        }
+
+        @Override
+        public long cost() {
+            return iterators[0].cost();
+        }
+    }
+}
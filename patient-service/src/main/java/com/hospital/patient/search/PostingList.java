@@ -0,0 +1,72 @@
+package com.hospital.patient.search;
+
+import java.util.Arrays;
+
+/**
+ * IDs des patients d'un terme de l'index, triés par ordre croissant et sans doublon.
+ * Les IDs attribués par la base étant croissants, un nouveau patient est ajouté en fin de tableau.
+ *
+ * Non synchronisée : protégée par le verrou de PatientSearchIndex.
+ */
+final class PostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int position = size;
+        if (size > 0 && ids[size - 1] >= id) {
+            position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Position du premier ID >= target, en partant de "from" (recherche exponentielle :
+     * les avancées successives d'une intersection sont le plus souvent courtes).
+     *
+     * @return size() si aucun
+     */
+    int seek(long target, int from) {
+        if (from >= size || ids[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        while (low + step < size && ids[low + step] < target) {
+            low += step;
+            step *= 2;
+        }
+        int position = Arrays.binarySearch(ids, low + 1, Math.min(low + step, size - 1) + 1, target);
+        return position >= 0 ? position : -position - 1;
+    }
+}
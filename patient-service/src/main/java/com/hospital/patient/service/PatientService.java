@@ -1,14 +1,34 @@
 package com.hospital.patient.service;
 
+import com.hospital.common.web.CursorPage;
+import com.hospital.patient.dto.SearchPage;
 import com.hospital.patient.entity.Patient;
+import com.hospital.patient.event.PatientChangedEvent;
 import com.hospital.patient.exception.PatientNotFoundException;
 import com.hospital.patient.repository.PatientRepository;
+import com.hospital.patient.search.PatientSearchIndex;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service Patient - contient la logique métier.
@@ -19,33 +39,73 @@ import java.util.List;
 @Slf4j                    // Active les logs (log.info, log.error, etc.)
 public class PatientService {
 
+    // Taille maximale d'une clause IN envoyée à la base
+    private static final int EXISTS_QUERY_CHUNK = 1000;
+
     private final PatientRepository patientRepository;
+    private final ApplicationEventPublisher eventPublisher;  // Alimente le journal d'événements patients
+    private final EntityManager entityManager;
+    private final PatientSearchIndex patientSearchIndex;
 
     /**
      * Récupère tous les patients enregistrés.
      */
+    @Transactional(readOnly = true)
     public List<Patient> getAllPatients() {
-        log.info("Récupération de tous les patients");
+        log.debug("Récupération de tous les patients");
         return patientRepository.findAll();
     }
 
+    /**
+     * Récupère une page de patients triés par ID, à partir d'un curseur opaque.
+     */
+    public CursorPage<Patient> getPatientsPage(String cursor, int size) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        List<Patient> patients = patientRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size));
+        String nextCursor = patients.size() < size ? null
+                : CursorPage.encodeCursor(patients.get(patients.size() - 1).getId());
+        return new CursorPage<>(patients, nextCursor);
+    }
+
+    /**
+     * Parcourt tous les patients sans les charger en mémoire d'un coup.
+     * Chaque patient est détaché après traitement pour garder le contexte de persistance vide.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllPatients(Consumer<Patient> consumer) {
+        try (Stream<Patient> patients = patientRepository.streamAllByOrderByIdAsc()) {
+            patients.forEach(patient -> {
+                consumer.accept(patient);
+                entityManager.detach(patient);
+            });
+        }
+    }
+
     /**
      * Récupère un patient par son ID.
      * Lance une exception si non trouvé.
      */
+    @Transactional(readOnly = true)
     public Patient getPatientById(Long id) {
-        log.info("Recherche du patient avec l'ID : {}", id);
+        log.debug("Recherche du patient avec l'ID : {}", id);
         return patientRepository.findById(id)
                 .orElseThrow(() -> new PatientNotFoundException(id));
     }
 
+    /**
+     * Version courante d'un patient (vide s'il n'existe pas), lue sans charger l'entité.
+     */
+    public Optional<Long> getPatientVersion(Long id) {
+        return patientRepository.findVersionById(id);
+    }
+
     /**
      * Crée un nouveau patient.
      * Vérifie que l'email n'est pas déjà utilisé.
      */
     @Transactional
     public Patient createPatient(Patient patient) {
-        log.info("Création d'un nouveau patient : {} {}", patient.getPrenom(), patient.getNom());
+        log.debug("Création d'un nouveau patient : {} {}", patient.getPrenom(), patient.getNom());
 
         // Vérification de l'unicité de l'email
         if (patient.getEmail() != null && patientRepository.existsByEmail(patient.getEmail())) {
@@ -53,19 +113,26 @@ public class PatientService {
         }
 
         Patient savedPatient = patientRepository.save(patient);
+        eventPublisher.publishEvent(new PatientChangedEvent(PatientChangedEvent.Type.CREATED, savedPatient.getId(), savedPatient));
         log.info("Patient créé avec succès, ID : {}", savedPatient.getId());
         return savedPatient;
     }
 
     /**
      * Met à jour les informations d'un patient existant.
+     *
+     * @param expectedVersion version connue du client (If-Match), ou null pour ne pas la vérifier
+     * @throws ObjectOptimisticLockingFailureException si le patient a été modifié entre-temps
      */
     @Transactional
-    public Patient updatePatient(Long id, Patient patientDetails) {
+    public Patient updatePatient(Long id, Patient patientDetails, Long expectedVersion) {
         log.info("Mise à jour du patient avec l'ID : {}", id);
 
         // Vérifie que le patient existe
         Patient existingPatient = getPatientById(id);
+        if (expectedVersion != null && !expectedVersion.equals(existingPatient.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Patient.class, id);
+        }
 
         // Met à jour les champs
         existingPatient.setNom(patientDetails.getNom());
@@ -75,7 +142,9 @@ public class PatientService {
         existingPatient.setNumeroDeTelephone(patientDetails.getNumeroDeTelephone());
         existingPatient.setAdresse(patientDetails.getAdresse());
 
-        return patientRepository.save(existingPatient);
+        Patient updatedPatient = patientRepository.save(existingPatient);
+        eventPublisher.publishEvent(new PatientChangedEvent(PatientChangedEvent.Type.UPDATED, id, updatedPatient));
+        return updatedPatient;
     }
 
     /**
@@ -87,12 +156,49 @@ public class PatientService {
         // Vérifie d'abord que le patient existe
         getPatientById(id);
         patientRepository.deleteById(id);
+        eventPublisher.publishEvent(new PatientChangedEvent(PatientChangedEvent.Type.DELETED, id, null));
+    }
+
+    /**
+     * Recherche des patients par nom, prénom, email ou téléphone via l'index en mémoire.
+     * Seuls les patients de la page demandée sont lus en base. L'index s'arrête un résultat
+     * après la fin de la page : ce résultat indique seulement s'il existe une page suivante.
+     */
+    public SearchPage<Patient> searchPatients(String query, int page, int size) {
+        int end = (int) Math.min(((long) page + 1) * size, Integer.MAX_VALUE - 1);
+        List<Long> ids = patientSearchIndex.search(query, end + 1);
+        int from = (int) Math.min((long) page * size, ids.size());
+        List<Long> pageIds = ids.subList(from, Math.min(end, ids.size()));
+
+        Map<Long, Patient> patients = patientRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        List<Patient> items = pageIds.stream().map(patients::get).filter(Objects::nonNull).toList();
+        return new SearchPage<>(items, ids.size() > end, page, size);
     }
 
     /**
      * Vérifie si un patient existe (utilisé par les autres microservices).
+     * Sans transaction en lecture seule : lu sur la base principale, même avec des réplicas,
+     * car la réponse autorise une écriture dans le service appelant.
      */
     public boolean patientExists(Long id) {
         return patientRepository.existsById(id);
     }
+
+    /**
+     * Vérifie l'existence de plusieurs patients en une seule passe.
+     * Les IDs sont interrogés par paquets de EXISTS_QUERY_CHUNK.
+     */
+    public Map<Long, Boolean> patientsExist(Collection<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new HashSet<>(ids));
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < distinctIds.size(); from += EXISTS_QUERY_CHUNK) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + EXISTS_QUERY_CHUNK, distinctIds.size()));
+            existing.addAll(patientRepository.findExistingIds(chunk));
+        }
+
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        distinctIds.forEach(id -> result.put(id, existing.contains(id)));
+        return result;
+    }
 }
@@ -0,0 +1,16 @@
+-- Schéma initial du Patient Service (profil persistent)
+-- Doit rester conforme aux entités JPA : Hibernate le vérifie au démarrage (ddl-auto: validate)
+
+create table patients (
+    id               bigint generated by default as identity,
+    nom              varchar(255) not null,
+    prenom           varchar(255) not null,
+    date_naissance   date         not null,
+    email            varchar(255),
+    numero_telephone varchar(255),
+    adresse          varchar(255),
+    version          bigint,
+    primary key (id),
+    -- Recherche par email et contrôle d'unicité à la création
+    constraint uk_patients_email unique (email)
+);